@@ -0,0 +1,458 @@
+package automation.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * Annotation processor generating a <code>&lt;PageObject&gt;_Binder</code> class (see <code>automation.pom.PageBinder</code>) for each
+ * subclass of <code>automation.pom.AbstractPageObject</code>.<br>
+ * The binder holds the locators of the <code>@FindBy</code> fields, built once, and assigns the fields directly. Page objects having
+ * private fields, lists or composite locators (<code>@FindBys</code>, <code>@FindAll</code>) get no binder and are initialized by the
+ * <code>PageFactory</code>, which is reported as a note
+ *
+ * @author alexgabor
+ *
+ */
+@SupportedAnnotationTypes("*")
+public class PageBinderProcessor extends AbstractProcessor {
+
+	private static final String PAGE_OBJECT = "automation.pom.AbstractPageObject";
+	private static final String PAGE_BINDER = "automation.pom.PageBinder";
+	private static final String ELEMENT_BINDINGS = "automation.pom.ElementBindings";
+	private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+	private static final String BY = "org.openqa.selenium.By";
+	private static final String BY_ID_OR_NAME = "org.openqa.selenium.support.pagefactory.ByIdOrName";
+	private static final String FIND_BY = "org.openqa.selenium.support.FindBy";
+	private static final String FIND_BYS = "org.openqa.selenium.support.FindBys";
+	private static final String FIND_ALL = "org.openqa.selenium.support.FindAll";
+
+	private static final String BINDER_SUFFIX = "_Binder";
+
+	/** The <code>@FindBy</code> attributes and the matching {@link #BY} factory methods */
+	private static final Map<String, String> ATTRIBUTE_METHODS = new HashMap<>();
+
+	/** The <code>How</code> values and the matching {@link #BY} factory methods */
+	private static final Map<String, String> HOW_METHODS = new HashMap<>();
+
+	static {
+
+		ATTRIBUTE_METHODS.put("id", "id");
+		ATTRIBUTE_METHODS.put("name", "name");
+		ATTRIBUTE_METHODS.put("className", "className");
+		ATTRIBUTE_METHODS.put("css", "cssSelector");
+		ATTRIBUTE_METHODS.put("tagName", "tagName");
+		ATTRIBUTE_METHODS.put("linkText", "linkText");
+		ATTRIBUTE_METHODS.put("partialLinkText", "partialLinkText");
+		ATTRIBUTE_METHODS.put("xpath", "xpath");
+
+		HOW_METHODS.put("ID", "id");
+		HOW_METHODS.put("NAME", "name");
+		HOW_METHODS.put("CLASS_NAME", "className");
+		HOW_METHODS.put("CSS", "cssSelector");
+		HOW_METHODS.put("TAG_NAME", "tagName");
+		HOW_METHODS.put("LINK_TEXT", "linkText");
+		HOW_METHODS.put("PARTIAL_LINK_TEXT", "partialLinkText");
+		HOW_METHODS.put("XPATH", "xpath");
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		TypeElement pageObject = processingEnv.getElementUtils().getTypeElement(PAGE_OBJECT);
+
+		if (pageObject == null) {
+			return false; // not compiling against the framework
+		}
+
+		for (TypeElement type : getTypes(roundEnv.getRootElements())) {
+
+			if (type.equals(pageObject) || !isPageObject(type, pageObject)) {
+				continue;
+			}
+
+			try {
+
+				writeBinder(type, getLocators(type), pageObject);
+
+			} catch (UnbindableException e) {
+				processingEnv.getMessager().printMessage(Kind.NOTE, "No binder generated, the PageFactory is used: " + e.getMessage(), type);
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, "Cannot write the binder: " + e.getMessage(), type);
+			}
+		}
+
+		return false; // the annotations are left to the other processors
+	}
+
+	/**
+	 * Get the given classes and the classes nested in them
+	 *
+	 * @param elements
+	 *        the root elements of the round, or the members of a class
+	 * @return
+	 */
+	private List<TypeElement> getTypes(Iterable<? extends Element> elements) {
+
+		List<TypeElement> types = new ArrayList<>();
+
+		for (TypeElement type : ElementFilter.typesIn(elements)) {
+
+			types.add(type);
+			types.addAll(getTypes(type.getEnclosedElements()));
+		}
+
+		return types;
+	}
+
+	/**
+	 * Check if the given class extends the page object base class
+	 *
+	 * @param type
+	 *        the class
+	 * @param pageObject
+	 *        the page object base class
+	 * @return
+	 */
+	private boolean isPageObject(TypeElement type, TypeElement pageObject) {
+		return processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type.asType()),
+				processingEnv.getTypeUtils().erasure(pageObject.asType()));
+	}
+
+	/**
+	 * Get the locator expression of each element field declared by the given class, checking that its super classes can be bound too
+	 *
+	 * @param type
+	 *        the page object class
+	 * @return the locators (see {@link #getLocator(VariableElement, String)}), by field name
+	 * @throws UnbindableException
+	 *         if a field cannot be assigned by a binder
+	 */
+	private Map<String, String[]> getLocators(TypeElement type) throws UnbindableException {
+
+		if (type.getModifiers().contains(Modifier.PRIVATE)) {
+			throw new UnbindableException(type + " is private");
+		}
+
+		Map<String, String[]> locators = new LinkedHashMap<>();
+
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+
+			if (field.getModifiers().contains(Modifier.STATIC)) {
+				continue;
+			}
+
+			boolean isElement = isType(field.asType(), WEB_ELEMENT);
+			boolean isAnnotated = getAnnotation(field, FIND_BY) != null || getAnnotation(field, FIND_BYS) != null
+					|| getAnnotation(field, FIND_ALL) != null;
+
+			if (!isElement && !(isType(field.asType(), List.class.getName()) && isAnnotated)) {
+				continue; // not decorated by the PageFactory either
+			}
+
+			String fieldName = type.getSimpleName() + "." + field.getSimpleName();
+
+			if (!isElement) {
+				throw new UnbindableException(fieldName + " is a list");
+			}
+
+			if (field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.FINAL)) {
+				throw new UnbindableException(fieldName + " is private or final");
+			}
+
+			locators.put(field.getSimpleName().toString(), getLocator(field, fieldName));
+		}
+
+		TypeElement superclass = getSuperclass(type);
+
+		if (superclass != null && !superclass.getQualifiedName().contentEquals(PAGE_OBJECT)) {
+			getLocators(superclass); // its binder is called first
+		}
+
+		return locators;
+	}
+
+	/**
+	 * Get the {@link #BY} expression locating the given field, like the <code>PageFactory</code> would, with the {@link #BY} factory
+	 * method and argument it uses
+	 *
+	 * @param field
+	 *        the element field
+	 * @param fieldName
+	 *        the name of the field, for the messages
+	 * @return the expression, the factory method and the argument literal; the last two are <code>null</code> for the id or name locators
+	 * @throws UnbindableException
+	 *         if the field does not use a single locator
+	 */
+	private String[] getLocator(VariableElement field, String fieldName) throws UnbindableException {
+
+		AnnotationMirror findBy = getAnnotation(field, FIND_BY);
+
+		if (findBy == null) {
+
+			if (getAnnotation(field, FIND_BYS) != null || getAnnotation(field, FIND_ALL) != null) {
+				throw new UnbindableException(fieldName + " uses a composite locator");
+			}
+
+			return idOrName(literal(field.getSimpleName().toString())); // the PageFactory default
+		}
+
+		String method = null;
+		String value = null;
+		String how = null;
+		String using = null;
+
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : findBy.getElementValues().entrySet()) {
+
+			String attribute = entry.getKey().getSimpleName().toString();
+			Object attributeValue = entry.getValue().getValue();
+
+			if ("how".equals(attribute)) {
+				how = ((VariableElement) attributeValue).getSimpleName().toString();
+			} else if ("using".equals(attribute)) {
+				using = (String) attributeValue;
+			} else if (ATTRIBUTE_METHODS.containsKey(attribute) && method == null) {
+
+				method = ATTRIBUTE_METHODS.get(attribute);
+				value = (String) attributeValue;
+
+			} else {
+				throw new UnbindableException(fieldName + " has an unsupported @FindBy: " + findBy);
+			}
+		}
+
+		if (method != null && how == null && using == null) {
+			return factory(method, literal(value));
+		}
+
+		if (method == null && using != null && HOW_METHODS.containsKey(how)) {
+			return factory(HOW_METHODS.get(how), literal(using));
+		}
+
+		if (method == null && using != null && "ID_OR_NAME".equals(how)) {
+			return idOrName(literal(using));
+		}
+
+		throw new UnbindableException(fieldName + " has an unsupported @FindBy: " + findBy);
+	}
+
+	/**
+	 * Get a locator built by a {@link #BY} factory method
+	 *
+	 * @param method
+	 *        the factory method
+	 * @param valueLiteral
+	 *        the Java literal of its argument
+	 * @return
+	 */
+	private static String[] factory(String method, String valueLiteral) {
+		return new String[] { BY + "." + method + "(" + valueLiteral + ")", method, valueLiteral };
+	}
+
+	/**
+	 * Get a locator matching the id or the name
+	 *
+	 * @param valueLiteral
+	 *        the Java literal of the id or name
+	 * @return
+	 */
+	private static String[] idOrName(String valueLiteral) {
+		return new String[] { "new " + BY_ID_OR_NAME + "(" + valueLiteral + ")", null, null };
+	}
+
+	/**
+	 * Write the binder of the given page object
+	 *
+	 * @param type
+	 *        the page object class
+	 * @param locators
+	 *        the locators of its fields, by field name
+	 * @param pageObject
+	 *        the page object base class
+	 * @throws IOException
+	 */
+	private void writeBinder(TypeElement type, Map<String, String[]> locators, TypeElement pageObject) throws IOException {
+
+		PackageElement typePackage = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = typePackage.getQualifiedName().toString();
+		String binderName = getBinderName(type);
+		String typeName = type.getQualifiedName().toString();
+
+		TypeElement superclass = getSuperclass(type);
+
+		StringBuilder source = new StringBuilder();
+
+		if (!typePackage.isUnnamed()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+
+		source.append("/**\n * Binds the elements of {@link ").append(typeName).append("}, generated by ")
+				.append(getClass().getName()).append("\n */\n");
+		source.append("public final class ").append(binderName).append(" implements ").append(PAGE_BINDER).append("<").append(typeName)
+				.append("> {\n\n");
+
+		for (Map.Entry<String, String[]> locator : locators.entrySet()) {
+			source.append("\tprivate static final ").append(BY).append(" ").append(getConstantName(locator.getKey())).append(" = ")
+					.append(locator.getValue()[0]).append(";\n");
+		}
+
+		source.append(locators.isEmpty() ? "" : "\n");
+		source.append("\t@Override\n\tpublic void bind(").append(typeName).append(" page, ").append(ELEMENT_BINDINGS)
+				.append(" bindings) {\n\t\tbindFields(page, bindings);\n\t}\n\n");
+		source.append("\tpublic static void bindFields(").append(typeName).append(" page, ").append(ELEMENT_BINDINGS).append(" bindings) {\n");
+
+		if (!superclass.equals(pageObject)) {
+
+			String superPackage = processingEnv.getElementUtils().getPackageOf(superclass).getQualifiedName().toString();
+
+			source.append("\t\t").append(superPackage.isEmpty() ? "" : superPackage + ".").append(getBinderName(superclass))
+					.append(".bindFields(page, bindings);\n");
+		}
+
+		for (Map.Entry<String, String[]> locator : locators.entrySet()) {
+
+			String fieldName = locator.getKey();
+			String method = locator.getValue()[1];
+
+			source.append("\t\tpage.").append(fieldName).append(" = bindings.element(").append(literal(fieldName)).append(", ")
+					.append(getConstantName(fieldName));
+
+			if (method != null) { // lets the page resolve the element along with the others
+				source.append(", ").append(literal(method)).append(", ").append(locator.getValue()[2]);
+			}
+
+			source.append(");\n");
+		}
+
+		source.append("\t}\n\n}\n");
+
+		String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+			writer.write(source.toString());
+		}
+	}
+
+	/**
+	 * Get the simple name of the binder of the given class, matching its binary name (e.g. <code>Outer$Inner_Binder</code>)
+	 *
+	 * @param type
+	 *        the page object class
+	 * @return
+	 */
+	private String getBinderName(TypeElement type) {
+
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+
+		return binaryName.substring(binaryName.lastIndexOf('.') + 1) + BINDER_SUFFIX;
+	}
+
+	/**
+	 * Get the super class of the given class
+	 *
+	 * @param type
+	 *        the class
+	 * @return <code>null</code> if there is none
+	 */
+	private TypeElement getSuperclass(TypeElement type) {
+
+		TypeMirror superclass = type.getSuperclass();
+
+		return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+	}
+
+	/**
+	 * Check if the given type is the given class, ignoring the type arguments
+	 *
+	 * @param type
+	 *        the type
+	 * @param className
+	 *        the qualified class name
+	 * @return
+	 */
+	private boolean isType(TypeMirror type, String className) {
+		return type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(className);
+	}
+
+	/**
+	 * Get the given annotation of the given element
+	 *
+	 * @param element
+	 *        the annotated element
+	 * @param annotationName
+	 *        the qualified name of the annotation
+	 * @return <code>null</code> if the element is not annotated
+	 */
+	private AnnotationMirror getAnnotation(Element element, String annotationName) {
+
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+
+			if (isType(annotation.getAnnotationType(), annotationName)) {
+				return annotation;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the Java literal of the given string
+	 *
+	 * @param value
+	 * @return
+	 */
+	private String literal(String value) {
+		return processingEnv.getElementUtils().getConstantExpression(value);
+	}
+
+	/**
+	 * Get the name of the locator constant of the given field (e.g. <code>txtFirstName</code> gives <code>TXT_FIRST_NAME</code>)
+	 *
+	 * @param fieldName
+	 * @return
+	 */
+	private static String getConstantName(String fieldName) {
+		return fieldName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+	}
+
+	/**
+	 * A page object that cannot be bound without reflection
+	 */
+	private static final class UnbindableException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		UnbindableException(String message) {
+			super(message);
+		}
+	}
+
+}
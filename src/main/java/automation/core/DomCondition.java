@@ -0,0 +1,178 @@
+package automation.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Condition evaluated inside the page (see {@link WaitElement#waitUntil(DomCondition, int)}), instead of being polled over WebDriver.<br>
+ * Elements are located by CSS selector and conditions can be combined with {@link #anyOf(DomCondition...)} and
+ * {@link #allOf(DomCondition...)}, e.g. <code>anyOf(visible("#results"), textContains(".message", "No results"))</code>
+ *
+ * @author alexgabor
+ *
+ */
+public final class DomCondition {
+
+	private static final int PAGE_READY_QUIET_MILLIS = 100;
+
+	private final Map<String, Object> spec;
+	private final String description;
+
+	private DomCondition(Map<String, Object> spec, String description) {
+		this.spec = spec;
+		this.description = description;
+	}
+
+	/**
+	 * At least one element matching the selector is displayed
+	 *
+	 * @param cssSelector
+	 *        the CSS selector of the element
+	 * @return
+	 */
+	public static DomCondition visible(String cssSelector) {
+		return element("visible", cssSelector, "visibility of " + cssSelector);
+	}
+
+	/**
+	 * No element matching the selector is displayed (or there is no such element)
+	 *
+	 * @param cssSelector
+	 *        the CSS selector of the element
+	 * @return
+	 */
+	public static DomCondition invisible(String cssSelector) {
+		return element("invisible", cssSelector, "invisibility of " + cssSelector);
+	}
+
+	/**
+	 * At least one element matching the selector is displayed and enabled
+	 *
+	 * @param cssSelector
+	 *        the CSS selector of the element
+	 * @return
+	 */
+	public static DomCondition clickable(String cssSelector) {
+		return element("clickable", cssSelector, "element to be clickable: " + cssSelector);
+	}
+
+	/**
+	 * At least one displayed element matching the selector contains the given text
+	 *
+	 * @param cssSelector
+	 *        the CSS selector of the element
+	 * @param text
+	 *        the expected text
+	 * @return
+	 */
+	public static DomCondition textContains(String cssSelector, String text) {
+
+		DomCondition condition = element("text", cssSelector, "text '" + text + "' in " + cssSelector);
+
+		condition.spec.put("text", text);
+
+		return condition;
+	}
+
+	/**
+	 * Exactly the given number of elements match the selector
+	 *
+	 * @param cssSelector
+	 *        the CSS selector of the elements
+	 * @param count
+	 *        the expected number of elements
+	 * @return
+	 */
+	public static DomCondition count(String cssSelector, int count) {
+
+		DomCondition condition = element("count", cssSelector, count + " elements matching " + cssSelector);
+
+		condition.spec.put("count", count);
+
+		return condition;
+	}
+
+	/**
+	 * The page has settled (see {@link PageReady}): loaded, without network activity or running animations for 100 milliseconds
+	 *
+	 * @return
+	 */
+	public static DomCondition pageReady() {
+
+		Map<String, Object> spec = new LinkedHashMap<>();
+
+		spec.put("type", "pageReady");
+		spec.put("quietMillis", PAGE_READY_QUIET_MILLIS);
+
+		return new DomCondition(spec, "page to be ready");
+	}
+
+	/**
+	 * At least one of the given conditions is true
+	 *
+	 * @param conditions
+	 *        the conditions to combine
+	 * @return
+	 */
+	public static DomCondition anyOf(DomCondition... conditions) {
+		return composite("anyOf", " or ", conditions);
+	}
+
+	/**
+	 * All the given conditions are true at the same time
+	 *
+	 * @param conditions
+	 *        the conditions to combine
+	 * @return
+	 */
+	public static DomCondition allOf(DomCondition... conditions) {
+		return composite("allOf", " and ", conditions);
+	}
+
+	/**
+	 * Get the condition as a map, which WebDriver passes to the page script as a JavaScript object
+	 *
+	 * @return
+	 */
+	Map<String, Object> toScriptArgument() {
+		return spec;
+	}
+
+	@Override
+	public String toString() {
+		return description;
+	}
+
+	private static DomCondition element(String type, String cssSelector, String description) {
+
+		Map<String, Object> spec = new LinkedHashMap<>();
+
+		spec.put("type", type);
+		spec.put("selector", cssSelector);
+
+		return new DomCondition(spec, description);
+	}
+
+	private static DomCondition composite(String type, String separator, DomCondition... conditions) {
+
+		List<Map<String, Object>> specs = new ArrayList<>();
+
+		for (DomCondition condition : conditions) {
+			specs.add(condition.spec);
+		}
+
+		Map<String, Object> spec = new LinkedHashMap<>();
+
+		spec.put("type", type);
+		spec.put("conditions", specs);
+
+		String description = Arrays.stream(conditions).map(DomCondition::toString).collect(Collectors.joining(separator, "(", ")"));
+
+		return new DomCondition(spec, description);
+	}
+
+}
@@ -0,0 +1,35 @@
+package automation.core;
+
+/**
+ * Counter of the documents loaded in the browser of the current thread.<br>
+ * It is advanced on every navigation or window switch (see {@link automation.core.listeners.TestEventListener}) and whenever the
+ * {@link automation.util.JsLibrary} finds a document it was not installed in yet (e.g. loaded by a click), without any extra browser call.
+ * The elements located during an older epoch are located again before being used
+ *
+ * @author alexgabor
+ *
+ */
+public final class DomEpoch {
+
+	private static final ThreadLocal<long[]> epoch = ThreadLocal.withInitial(() -> new long[1]);
+
+	private DomEpoch() {
+	}
+
+	/**
+	 * Get the current epoch
+	 *
+	 * @return
+	 */
+	public static long current() {
+		return epoch.get()[0];
+	}
+
+	/**
+	 * Start a new epoch, invalidating the elements located so far
+	 */
+	public static void advance() {
+		epoch.get()[0]++;
+	}
+
+}
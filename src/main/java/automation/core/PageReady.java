@@ -0,0 +1,68 @@
+package automation.core;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Detection of a settled page: document loaded, no XHR/fetch request or jQuery AJAX call in flight, no finite animation running and no
+ * navigation started, for a short quiet period (see {@link DomCondition#pageReady()}).<br>
+ * Requests are counted by a shim installed once per document, only by the page ready waits; requests started before it was installed are
+ * only seen through <code>jQuery.active</code>
+ *
+ * @author alexgabor
+ *
+ */
+public final class PageReady {
+
+	/**
+	 * Milliseconds after a <code>beforeunload</code> event during which the page is considered to be leaving: a navigation which did not
+	 * replace the document by then was cancelled (e.g. a download, or a prompt of another handler)
+	 */
+	private static final long UNLOAD_GRACE_MILLIS = 10000;
+
+	/**
+	 * Script installing the request counting shim in the current document, if not installed yet
+	 */
+	static final String SHIM_SCRIPT = " var network = window.__automationNetwork;"
+			+ " if (!network) {"
+			+ "  network = window.__automationNetwork = { pending: 0, idleSince: 0, unloadingSince: 0 };"
+			+ "  var requestDone = function () { network.pending = Math.max(0, network.pending - 1); };"
+			+ "  var send = XMLHttpRequest.prototype.send;"
+			+ "  XMLHttpRequest.prototype.send = function () { network.pending++; this.addEventListener('loadend', requestDone); return send.apply(this, arguments); };"
+			+ "  if (window.fetch) { var fetch = window.fetch;"
+			+ "   window.fetch = function () { network.pending++; return fetch.apply(this, arguments).then("
+			+ "    function (response) { requestDone(); return response; }, function (error) { requestDone(); throw error; }); }; }"
+			+ "  window.addEventListener('beforeunload', function () { network.unloadingSince = Date.now(); });"
+			+ "  window.addEventListener('pageshow', function () { network.unloadingSince = 0; });" // back in the page (cache restore)
+			+ " }";
+
+	/**
+	 * Script defining <code>isPageReady(quietMillis)</code>, used by the <code>pageReady</code> {@link DomCondition}.<br>
+	 * The quiet period is measured from the start of the script at the earliest, since the idle state kept by the shim may date from an
+	 * earlier wait (e.g. before a request started asynchronously by a click)
+	 */
+	static final String IS_READY_SCRIPT = " var waitStart = Date.now();"
+			+ " var isPageReady = function (quietMillis) {"
+			+ "  var animating = document.getAnimations && document.getAnimations().some(function (a) {"
+			+ "   return a.playState === 'running' && a.effect && a.effect.getTiming().iterations !== Infinity; });"
+			+ "  var unloading = network.unloadingSince > 0 && Date.now() - network.unloadingSince < " + UNLOAD_GRACE_MILLIS + ";"
+			+ "  var idle = document.readyState === 'complete' && !unloading && network.pending === 0"
+			+ "   && !(window.jQuery && window.jQuery.active > 0) && !animating;"
+			+ "  if (!idle) { network.idleSince = 0; return false; }"
+			+ "  if (!network.idleSince) { network.idleSince = Date.now(); }"
+			+ "  return Date.now() - Math.max(network.idleSince, waitStart) >= quietMillis; };";
+
+	private PageReady() {
+	}
+
+	/**
+	 * Install the request counting shim in the current document, e.g. before clicking a link, so that the navigation it starts is detected
+	 *
+	 * @param driver
+	 *        the {@link WebDriver} of the page
+	 */
+	public static void install(WebDriver driver) {
+		((JavascriptExecutor) driver).executeScript(SHIM_SCRIPT);
+	}
+
+}
@@ -0,0 +1,123 @@
+package automation.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delay between two checks of a {@link WaitElement} condition.<br>
+ * The condition is checked once right away; the strategy is only asked for the delays before the following checks
+ *
+ * @author alexgabor
+ *
+ */
+@FunctionalInterface
+public interface PollingStrategy {
+
+	/**
+	 * The Selenium default: a check every 500 milliseconds
+	 */
+	PollingStrategy FIXED = fixed(500);
+
+	/**
+	 * The <code>history</code> strategy: a check at the median latency of the wait, then jittered exponential delays
+	 */
+	PollingStrategy HISTORY = historyInformed(jittered(exponential(20, 500), 0.25));
+
+	/**
+	 * Get the delay before the next check
+	 *
+	 * @param poll
+	 *        the number of checks already made (1 before the second check)
+	 * @param medianMillis
+	 *        the median time the same wait took to succeed in the previous runs (see {@link WaitHistory}), or -1 if unknown
+	 * @return the delay in milliseconds
+	 */
+	long getDelayMillis(int poll, long medianMillis);
+
+	/**
+	 * Check at a fixed interval
+	 *
+	 * @param intervalMillis
+	 *        the delay between two checks
+	 * @return
+	 */
+	static PollingStrategy fixed(long intervalMillis) {
+		return (poll, medianMillis) -> intervalMillis;
+	}
+
+	/**
+	 * Check quickly first, then double the delay after every check, e.g. 20, 40, 80, ... up to <code>maxMillis</code>
+	 *
+	 * @param initialMillis
+	 *        the delay before the second check
+	 * @param maxMillis
+	 *        the maximum delay
+	 * @return
+	 */
+	static PollingStrategy exponential(long initialMillis, long maxMillis) {
+		return (poll, medianMillis) -> Math.min(maxMillis, initialMillis << Math.min(poll - 1, 30));
+	}
+
+	/**
+	 * Randomize the delays of the given strategy, so that parallel tests do not hit the browsers in lockstep
+	 *
+	 * @param strategy
+	 *        the strategy to randomize
+	 * @param ratio
+	 *        the maximum deviation, as a fraction of the delay (e.g. 0.25 for +/- 25%)
+	 * @return
+	 */
+	static PollingStrategy jittered(PollingStrategy strategy, double ratio) {
+
+		return (poll, medianMillis) -> {
+
+			long delay = strategy.getDelayMillis(poll, medianMillis);
+			double factor = 1 + ThreadLocalRandom.current().nextDouble(-ratio, ratio);
+
+			return Math.max(1, Math.round(delay * factor));
+		};
+	}
+
+	/**
+	 * Schedule the second check at the median latency observed for the wait, then fall back to the given strategy.<br>
+	 * Without history, the given strategy is used from the start
+	 *
+	 * @param fallback
+	 *        the strategy used for the following checks
+	 * @return
+	 */
+	static PollingStrategy historyInformed(PollingStrategy fallback) {
+
+		return (poll, medianMillis) -> {
+
+			if (poll == 1 && medianMillis > 0) {
+				return medianMillis;
+			}
+
+			return fallback.getDelayMillis(poll, medianMillis);
+		};
+	}
+
+	/**
+	 * Get the strategy with the given name, as used by the <b>wait.polling</b> property
+	 *
+	 * @param name
+	 *        one of <code>fixed</code>, <code>exponential</code>, <code>jittered</code>, <code>history</code>
+	 * @return the strategy, or <code>null</code> if the name is unknown
+	 */
+	static PollingStrategy forName(String name) {
+
+		switch (name.trim().toLowerCase()) {
+		case "fixed":
+			return FIXED;
+		case "exponential":
+			return exponential(20, 500);
+		case "jittered":
+			return jittered(exponential(20, 500), 0.25);
+		case "history":
+			return HISTORY;
+		default:
+			return null;
+		}
+	}
+
+}
@@ -2,7 +2,6 @@ package automation.core;
 
 import static automation.util.LoggerUtil.LOG_FOLDER;
 import static automation.util.LoggerUtil.createLogFile;
-import static org.openqa.selenium.support.ui.ExpectedConditions.elementToBeClickable;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -11,11 +10,12 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.rules.TestName;
 import org.junit.rules.TestRule;
-import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
+import automation.core.browser.BrowserPool;
 import automation.core.browser.BrowserSession;
 import automation.core.logging.MessageLogger;
+import automation.core.properties.Settings;
 import automation.core.watchers.OutcomeTestWatcher;
 
 /**
@@ -51,14 +51,23 @@ public class SeleneseTest {
 	public static void setupClass() {
 
 		System.setProperty(LOG_FOLDER, "Logs");
+
+		BrowserPool.getInstance(); // starts pre-warming the browsers, if configured
 	}
 
 	/**
-	 * After class tear down - close browser
+	 * After class tear down - close browser, or give it back to the pool when browsers are reused across classes
 	 */
 	@AfterClass
 	public static void tearDownClass() {
 
+		if (Settings.getInstance().isBrowserReuse()) {
+
+			BrowserSession.getInstance().releaseBrowser();
+
+			return;
+		}
+
 		BrowserSession.getInstance().quitDriver();
 	}
 
@@ -74,13 +83,31 @@ public class SeleneseTest {
 	@Before
 	public void setup() {
 		
+		Settings settings = Settings.getInstance();
+		TestContext context = TestContext.start(getClass(), testNameRule.getMethodName());
+
+		context.setBudget(settings.getTestBudget());
+		context.startTimer("setup");
+
 		setupLogs(testNameRule.getMethodName());
 
-		BrowserSession.getInstance().openBrowser();
+		BrowserSession session = BrowserSession.getInstance();
 
-		driver = BrowserSession.getInstance().getWebDriver();
+		session.openBrowser();
+
+		if (settings.isBrowserReuse()) {
+			session.resetBrowser();
+		}
+
+		session.getBrowser().countTest();
+
+		context.setBrowser(session.getBrowser());
+
+		driver = session.getWebDriver();
 
 		acceptCookies();
+
+		context.stopTimer("setup");
 	}
 
 	/**
@@ -102,19 +129,11 @@ public class SeleneseTest {
 	}
 
 	/**
-	 * Closes the footer bar message by accepting the cookies
+	 * Closes the footer bar message by accepting the cookies (already done for pre-warmed browsers)
 	 */
 	private void acceptCookies() {
 
-		By btnAcceptCookies = By.id("cn-accept-cookie");
-
-		if (driver.findElements(btnAcceptCookies).isEmpty()) {
-			return;
-		}
-
-		new WaitElement().waitUntil(elementToBeClickable(btnAcceptCookies), 10);
-
-		driver.findElement(btnAcceptCookies).click();
+		BrowserSession.getInstance().getBrowser().acceptCookies();
 	}
 
 	/**
@@ -0,0 +1,275 @@
+package automation.core;
+
+import static automation.util.LoggerUtil.getTestAppender;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.core.Appender;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import automation.core.browser.Browser;
+import automation.core.browser.BrowserSession;
+
+/**
+ * Context of the test running on the current thread: test identity, browser, log appender, timers and metrics.<br>
+ * Every test thread (e.g. a parallel runner worker) has its own context, so concurrent tests never share state. It is set once per test,
+ * and the helpers ({@link WaitElement}, {@link automation.util.Event}, {@link automation.core.logging.Screenshot}) read from it instead of
+ * going through the synchronized {@link BrowserSession} singleton.<br>
+ * A test may also have a time budget (<b>test.budget</b>), which caps every wait, page load and script timeout
+ *
+ * @author alexgabor
+ *
+ */
+public final class TestContext {
+
+	private static final ThreadLocal<TestContext> current = new ThreadLocal<>();
+
+	private final String className;
+	private final String testName;
+	private final long startNanos = System.nanoTime();
+
+	private final Map<String, Long> timerStarts = new LinkedHashMap<>();
+	private final Map<String, Long> timings = new LinkedHashMap<>();
+	private final Map<String, Long> metrics = new LinkedHashMap<>();
+
+	private Browser browser;
+	private long deadlineNanos = Long.MAX_VALUE;
+
+	private TestContext(String className, String testName) {
+		this.className = className;
+		this.testName = testName;
+	}
+
+	/**
+	 * Create the context of a new test and bind it to the current thread
+	 *
+	 * @param testClass
+	 *        the test class
+	 * @param testName
+	 *        the test method name
+	 * @return the new {@link TestContext}
+	 */
+	public static TestContext start(Class<?> testClass, String testName) {
+
+		TestContext context = new TestContext(testClass.getSimpleName(), testName);
+
+		current.set(context);
+
+		return context;
+	}
+
+	/**
+	 * Get the context of the test running on the current thread
+	 *
+	 * @return the {@link TestContext}, or <code>null</code> outside of a test
+	 */
+	public static TestContext current() {
+		return current.get();
+	}
+
+	/**
+	 * Get the {@link WebDriver} of the current thread: the one of the running test, or the one bound to the thread by the
+	 * {@link BrowserSession} outside of a test (e.g. during the test setup)
+	 *
+	 * @return
+	 */
+	public static WebDriver getCurrentWebDriver() {
+
+		TestContext context = current.get();
+
+		if (context != null && context.browser != null) {
+			return context.browser.getWebDriver();
+		}
+
+		return BrowserSession.getInstance().getWebDriver();
+	}
+
+	/**
+	 * Limit the given timeout to the time budget left to the test running on the current thread
+	 *
+	 * @param timeoutMillis
+	 *        the timeout of the operation, in milliseconds
+	 * @return the smaller of the timeout and the remaining budget; the timeout itself outside of a test
+	 * @throws TimeoutException
+	 *         if the test has already spent its whole budget
+	 */
+	public static long limitTimeout(long timeoutMillis) {
+
+		TestContext context = current.get();
+
+		if (context == null) {
+			return timeoutMillis;
+		}
+
+		long remainingMillis = context.getRemainingMillis();
+
+		if (remainingMillis <= 0) {
+			throw new TimeoutException("Test '" + context.testName + "' has spent its whole time budget");
+		}
+
+		return Math.min(timeoutMillis, remainingMillis);
+	}
+
+	/**
+	 * Unbind the test context from the current thread, once the test is finished
+	 */
+	public static void end() {
+		current.remove();
+	}
+
+	/**
+	 * Get the simple name of the test class
+	 *
+	 * @return
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * Get the test method name
+	 *
+	 * @return
+	 */
+	public String getTestName() {
+		return testName;
+	}
+
+	/**
+	 * Get the {@link Browser} used by this test
+	 *
+	 * @return
+	 */
+	public Browser getBrowser() {
+		return browser;
+	}
+
+	/**
+	 * Set the {@link Browser} used by this test
+	 *
+	 * @param browser
+	 *        the {@link Browser} checked out for this test
+	 */
+	public void setBrowser(Browser browser) {
+		this.browser = browser;
+	}
+
+	/**
+	 * Get the {@link WebDriver} used by this test
+	 *
+	 * @return
+	 */
+	public WebDriver getWebDriver() {
+		return browser == null ? null : browser.getWebDriver();
+	}
+
+	/**
+	 * Get the log {@link Appender} writing this test's log file
+	 *
+	 * @return
+	 */
+	public Appender getAppender() {
+		return getTestAppender();
+	}
+
+	/**
+	 * Start measuring the duration of a test step
+	 *
+	 * @param name
+	 *        the timer name, e.g. "setup"
+	 */
+	public void startTimer(String name) {
+		timerStarts.put(name, System.nanoTime());
+	}
+
+	/**
+	 * Stop the given timer and record its duration
+	 *
+	 * @param name
+	 *        the timer name, as given to {@link #startTimer(String)}
+	 * @return the measured duration, in milliseconds
+	 */
+	public long stopTimer(String name) {
+
+		Long start = timerStarts.remove(name);
+
+		if (start == null) {
+			return 0;
+		}
+
+		long durationMillis = NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		timings.merge(name, durationMillis, Long::sum);
+
+		return durationMillis;
+	}
+
+	/**
+	 * Get the durations recorded by the timers, in milliseconds
+	 *
+	 * @return
+	 */
+	public Map<String, Long> getTimings() {
+		return Collections.unmodifiableMap(timings);
+	}
+
+	/**
+	 * Add the given amount to a test metric (e.g. number of waits, total wait time)
+	 *
+	 * @param metric
+	 *        the metric name
+	 * @param amount
+	 *        the amount to add
+	 */
+	public void record(String metric, long amount) {
+		metrics.merge(metric, amount, Long::sum);
+	}
+
+	/**
+	 * Get the metrics recorded during the test
+	 *
+	 * @return
+	 */
+	public Map<String, Long> getMetrics() {
+		return Collections.unmodifiableMap(metrics);
+	}
+
+	/**
+	 * Set the time budget of the test, counted from its start: once spent, every wait and page load fails right away
+	 *
+	 * @param seconds
+	 *        the budget in seconds, 0 for no limit
+	 */
+	public void setBudget(int seconds) {
+		deadlineNanos = seconds > 0 ? startNanos + SECONDS.toNanos(seconds) : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Get the time budget left to the test
+	 *
+	 * @return the remaining milliseconds, {@link Long#MAX_VALUE} if the test has no budget
+	 */
+	public long getRemainingMillis() {
+
+		if (deadlineNanos == Long.MAX_VALUE) {
+			return Long.MAX_VALUE;
+		}
+
+		return NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+	}
+
+	/**
+	 * Get the number of milliseconds since the test started
+	 *
+	 * @return
+	 */
+	public long getElapsedMillis() {
+		return NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
+}
@@ -1,13 +1,26 @@
 package automation.core;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.Sleeper;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import automation.core.browser.BrowserSession;
+import automation.core.browser.Browser;
+import automation.core.properties.Settings;
 
 /**
  * Class used for waiting on various events to occur
@@ -17,6 +30,77 @@ import automation.core.browser.BrowserSession;
  */
 public class WaitElement {
 
+	/**
+	 * Property of the document holding the token of the last in-page wait
+	 */
+	private static final String DOCUMENT_TOKEN = "__automationWaitToken";
+
+	private static final String IS_SAME_DOCUMENT_SCRIPT = "return document." + DOCUMENT_TOKEN + " === arguments[0];";
+
+	/**
+	 * Script that resolves as soon as the condition is true (checked on every DOM mutation and animation frame), with <code>false</code>
+	 * after the given number of milliseconds, or with <code>{ error: message }</code> if the condition cannot be evaluated.<br>
+	 * The document is marked with the given token, to tell a page load from a script error when the call fails
+	 */
+	private static final String WAIT_SCRIPT = "var condition = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];"
+			+ " document." + DOCUMENT_TOKEN + " = arguments[2];"
+			+ " var needsNetwork = function (c) { return c.type === 'pageReady'"
+			+ "  || ((c.type === 'anyOf' || c.type === 'allOf') && c.conditions.some(needsNetwork)); };"
+			+ " var network;"
+			+ " if (needsNetwork(condition)) {" + PageReady.SHIM_SCRIPT + " }" // the request shim is only installed for the page ready waits
+			+ PageReady.IS_READY_SCRIPT
+			+ " var isVisible = function (e) { var r = e.getBoundingClientRect(), s = window.getComputedStyle(e);"
+			+ " return r.width > 0 && r.height > 0 && s.visibility !== 'hidden' && s.display !== 'none' && parseFloat(s.opacity) > 0; };"
+			+ " var test = function (c) {"
+			+ "  if (c.type === 'anyOf') { return c.conditions.some(test); }"
+			+ "  if (c.type === 'allOf') { return c.conditions.every(test); }"
+			+ "  if (c.type === 'pageReady') { return isPageReady(c.quietMillis); }"
+			+ "  var elements = Array.prototype.slice.call(document.querySelectorAll(c.selector));"
+			+ "  switch (c.type) {"
+			+ "  case 'visible': return elements.some(isVisible);"
+			+ "  case 'invisible': return !elements.some(isVisible);"
+			+ "  case 'clickable': return elements.some(function (e) { return isVisible(e) && !e.disabled; });"
+			+ "  case 'text': return elements.some(function (e) { return isVisible(e) && e.textContent.indexOf(c.text) >= 0; });"
+			+ "  case 'count': return elements.length === c.count;"
+			+ "  }"
+			+ "  return false; };"
+			+ " var failure = function (e) { return { error: '' + (e && e.message ? e.message : e) }; };"
+			+ " try { if (test(condition)) { done(true); return; } } catch (e) { done(failure(e)); return; }"
+			+ " var finished = false, timer, observer;"
+			+ " var finish = function (result) { if (finished) { return; } finished = true; observer.disconnect(); clearTimeout(timer); done(result); };"
+			+ " var check = function () { if (finished) { return; } try { if (test(condition)) { finish(true); } } catch (e) { finish(failure(e)); } };"
+			+ " observer = new MutationObserver(check);"
+			+ " observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });"
+			+ " var onFrame = function () { check(); if (!finished) { window.requestAnimationFrame(onFrame); } };"
+			+ " window.requestAnimationFrame(onFrame);"
+			+ " timer = setTimeout(function () { finish(false); }, timeout);";
+
+	/**
+	 * Milliseconds kept between the in-page timeout and the WebDriver script timeout
+	 */
+	private static final long SCRIPT_TIMEOUT_MARGIN = 2000;
+
+	private static volatile PollingStrategy defaultPolling = null;
+
+	private final PollingStrategy pollingStrategy;
+
+	/**
+	 * Create a wait using the <b>wait.polling</b> strategy
+	 */
+	public WaitElement() {
+		this(getDefaultPolling());
+	}
+
+	/**
+	 * Create a wait using the given polling strategy
+	 *
+	 * @param pollingStrategy
+	 *        the delays between the checks of the condition
+	 */
+	public WaitElement(PollingStrategy pollingStrategy) {
+		this.pollingStrategy = pollingStrategy;
+	}
+
 	/**
 	 * Wait for a given {@link ExpectedCondition} to become true
 	 *
@@ -31,7 +115,7 @@ public class WaitElement {
 	}
 
 	/**
-	 * Wait for a given {@link ExpectedCondition} to become true
+	 * Wait for a given {@link ExpectedCondition} to become true, for at most the time budget left to the test (see {@link TestContext})
 	 *
 	 * @param message
 	 *        the timeout message representing the failure cause or the verification description
@@ -42,13 +126,220 @@ public class WaitElement {
 	 */
 	public void waitUntil(String message, ExpectedCondition<?> isTrue, int seconds) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = TestContext.getCurrentWebDriver();
+		String key = getHistoryKey(isTrue);
+		long timeoutMillis = TestContext.limitTimeout(WaitHistory.getTimeoutMillis(key, SECONDS.toMillis(seconds)));
 
-		FluentWait<WebDriver> wait = new WebDriverWait(driver, seconds) //
+		FluentWait<WebDriver> wait = new WebDriverWait(driver, Clock.systemDefaultZone(), newSleeper(key), seconds, 0) //
+				.withTimeout(Duration.ofMillis(timeoutMillis))
 				.withMessage(message)
 				.ignoring(NoSuchElementException.class, StaleElementReferenceException.class);
 
-		wait.until(isTrue);
+		long start = System.currentTimeMillis();
+		boolean isSuccessful = false;
+
+		try {
+
+			wait.until(isTrue);
+
+			isSuccessful = true;
+
+		} finally {
+			recordWait(key, System.currentTimeMillis() - start, isSuccessful);
+		}
+	}
+
+	/**
+	 * Get the {@link WaitHistory} key of a wait, which walks the stack, only if the wait uses its history (learned timeouts or history
+	 * polling)
+	 *
+	 * @param condition
+	 *        the condition of the wait
+	 * @return the key, or <code>null</code> if the history is not used
+	 */
+	private String getHistoryKey(Object condition) {
+
+		if (!WaitHistory.isLearning() && pollingStrategy != PollingStrategy.HISTORY) {
+			return null;
+		}
+
+		return WaitHistory.getKey(condition);
+	}
+
+	/**
+	 * Create the {@link Sleeper} of a wait, which ignores the fixed Selenium interval and sleeps as told by the polling strategy
+	 *
+	 * @param key
+	 *        the key of the wait, whose history informs the strategy (<code>null</code> if it has none)
+	 * @return
+	 */
+	private Sleeper newSleeper(String key) {
+
+		long medianMillis = WaitHistory.getMedian(key);
+		AtomicInteger polls = new AtomicInteger();
+
+		return interval -> Thread.sleep(pollingStrategy.getDelayMillis(polls.incrementAndGet(), medianMillis));
+	}
+
+	/**
+	 * Wait for a given {@link DomCondition} to become true, evaluating it inside the page: the wait returns as soon as the DOM changes,
+	 * with a single WebDriver call
+	 *
+	 * @param condition
+	 *        the condition to evaluate until <code>true</code> is returned
+	 * @param seconds
+	 *        the number or seconds to wait until timeout
+	 */
+	public void waitUntil(DomCondition condition, int seconds) {
+
+		waitUntil(null, condition, seconds);
+	}
+
+	/**
+	 * Wait for a given {@link DomCondition} to become true, evaluating it inside the page: the wait returns as soon as the DOM changes,
+	 * with a single WebDriver call.<br>
+	 * Waits longer than the script timeout are split in several calls, and a call interrupted by a page load is repeated on the new page;
+	 * any other script error (e.g. an invalid selector) fails the wait immediately.<br>
+	 * The wait never lasts longer than the time budget left to the test (see {@link TestContext})
+	 *
+	 * @param message
+	 *        the timeout message representing the failure cause or the verification description
+	 * @param condition
+	 *        the condition to evaluate until <code>true</code> is returned
+	 * @param seconds
+	 *        the number or seconds to wait until timeout
+	 */
+	public void waitUntil(String message, DomCondition condition, int seconds) {
+
+		JavascriptExecutor executor = (JavascriptExecutor) TestContext.getCurrentWebDriver();
+		String key = getHistoryKey(condition);
+		long timeoutMillis = TestContext.limitTimeout(WaitHistory.getTimeoutMillis(key, SECONDS.toMillis(seconds)));
+
+		long start = System.currentTimeMillis();
+		long deadline = start + timeoutMillis;
+		String token = Long.toString(System.nanoTime());
+		WebDriverException lastError = null;
+		boolean isSuccessful = false;
+
+		try {
+
+			for (long remaining = deadline - start; remaining > 0; remaining = deadline - System.currentTimeMillis()) {
+
+				Object result;
+
+				try {
+
+					result = executor.executeAsyncScript(WAIT_SCRIPT, condition.toScriptArgument(), Math.min(remaining, getMaxCallMillis()), token);
+
+				} catch (JavascriptException e) {
+
+					if (!isDocumentReplaced(executor, token)) {
+						throw e; // a script error, not a page load
+					}
+
+					lastError = e;
+
+					continue;
+				}
+
+				if (Boolean.TRUE.equals(result)) {
+
+					isSuccessful = true;
+
+					return;
+				}
+
+				if (result instanceof Map) {
+					throw new JavascriptException("Cannot evaluate the condition " + condition + ": " + ((Map<?, ?>) result).get("error"));
+				}
+			}
+
+		} finally {
+			recordWait(key, System.currentTimeMillis() - start, isSuccessful);
+		}
+
+		String timeoutMessage = "Expected condition failed: " + (message == null ? "waiting for " + condition : message) + " (tried for " + timeoutMillis
+				+ " ms)";
+
+		throw new TimeoutException(timeoutMessage, lastError);
+	}
+
+	/**
+	 * Tells if the document in which an in-page wait started has been replaced (the wait was interrupted by a page load)
+	 *
+	 * @param executor
+	 *        the driver
+	 * @param token
+	 *        the token the wait marked its document with
+	 * @return
+	 */
+	private static boolean isDocumentReplaced(JavascriptExecutor executor, String token) {
+
+		try {
+
+			return !Boolean.TRUE.equals(executor.executeScript(IS_SAME_DOCUMENT_SCRIPT, token));
+
+		} catch (JavascriptException e) {
+			return true; // the new document is still loading
+		}
+	}
+
+	/**
+	 * Get the longest time an in-page wait can last in a single call, which must end before the browser's script timeout
+	 *
+	 * @return
+	 */
+	private static long getMaxCallMillis() {
+
+		TestContext context = TestContext.current();
+
+		long scriptTimeoutMillis = SECONDS.toMillis(Browser.SCRIPT_TIMEOUT);
+
+		if (context != null && context.getBrowser() != null) {
+			scriptTimeoutMillis = context.getBrowser().getScriptTimeoutMillis();
+		}
+
+		return Math.max(scriptTimeoutMillis - SCRIPT_TIMEOUT_MARGIN, scriptTimeoutMillis / 2);
+	}
+
+	/**
+	 * Record the wait in the metrics of the current test and, if the condition became true, in the {@link WaitHistory}
+	 *
+	 * @param key
+	 *        the key of the wait, <code>null</code> if it does not use its history
+	 * @param durationMillis
+	 *        the time spent waiting
+	 * @param isSuccessful
+	 *        <code>true</code> if the condition became true before the timeout
+	 */
+	private static void recordWait(String key, long durationMillis, boolean isSuccessful) {
+
+		if (isSuccessful) {
+			WaitHistory.record(key, durationMillis);
+		}
+
+		TestContext context = TestContext.current();
+
+		if (context == null) {
+			return;
+		}
+
+		context.record("waits", 1);
+		context.record("wait ms", durationMillis);
+	}
+
+	/**
+	 * Get the <b>wait.polling</b> strategy, read once since the settings file is reloaded on every access
+	 *
+	 * @return
+	 */
+	private static PollingStrategy getDefaultPolling() {
+
+		if (defaultPolling == null) {
+			defaultPolling = Settings.getInstance().getWaitPolling();
+		}
+
+		return defaultPolling;
 	}
 
-}
\ No newline at end of file
+}
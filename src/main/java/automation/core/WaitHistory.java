@@ -0,0 +1,327 @@
+package automation.core;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import automation.core.logging.MessageLogger;
+import automation.core.properties.Settings;
+
+/**
+ * Durations of the successful {@link WaitElement} waits, per wait key (the page object method that started the wait and its condition).<br>
+ * The history is kept across runs in the <b>wait.history.file</b> file, one line per key: <code>key&lt;TAB&gt;ms,ms,...</code>.<br>
+ * It is only recorded by the waits using it, i.e. with <b>wait.learned</b> enabled or the {@link PollingStrategy#HISTORY} polling.<br>
+ * With <b>wait.learned</b> enabled, the waits use a timeout learned from their history (p99 &times; <b>wait.learned.factor</b>, clamped
+ * to <b>wait.learned.min</b> and <b>wait.learned.max</b> seconds) instead of the timeout given by the page object
+ *
+ * @author alexgabor
+ *
+ */
+public final class WaitHistory {
+
+	private static final MessageLogger LOG = new MessageLogger(WaitHistory.class);
+
+	private static final int MAX_SAMPLES = 50;
+	private static final int MIN_LEARNING_SAMPLES = 10;
+
+	/**
+	 * Framework classes wrapping the waits, skipped to find the page object method which started the wait
+	 */
+	private static final List<String> WAIT_HELPERS = Arrays.asList(Thread.class.getName(), WaitHistory.class.getName(),
+			WaitElement.class.getName(), "automation.pom.AbstractPageObject", "automation.util.FormControls", "automation.util.FormFill");
+
+	/**
+	 * Matches the keys of conditions described by an identity hash (lambdas, anonymous classes), which differ on every run
+	 */
+	private static final Pattern TRANSIENT_KEY = Pattern.compile("\\$\\$Lambda|@[0-9a-f]{5,8}(?![0-9A-Za-z])");
+
+	private static final Path historyFile = Paths.get(Settings.getInstance().getWaitHistoryFile());
+	private static final Map<String, Samples> history = load();
+	private static final Set<String> flaggedKeys = ConcurrentHashMap.newKeySet();
+	private static final AtomicBoolean isSaveScheduled = new AtomicBoolean();
+
+	private static final boolean isLearning;
+	private static final double learnedFactor;
+	private static final long learnedMinMillis;
+	private static final long learnedMaxMillis;
+
+	static {
+
+		Settings settings = Settings.getInstance();
+
+		isLearning = settings.isLearnedTimeouts();
+		learnedFactor = settings.getLearnedTimeoutFactor();
+		learnedMinMillis = SECONDS.toMillis(settings.getLearnedTimeoutMin());
+		learnedMaxMillis = SECONDS.toMillis(settings.getLearnedTimeoutMax());
+	}
+
+	private WaitHistory() {
+	}
+
+	/**
+	 * Tells if the waits use learned timeouts (<b>wait.learned</b>)
+	 *
+	 * @return
+	 */
+	public static boolean isLearning() {
+		return isLearning;
+	}
+
+	/**
+	 * Record the duration of a successful wait. The history is saved when the JVM exits, if any wait was recorded
+	 *
+	 * @param key
+	 *        the wait key, see {@link #getKey(Object)}; <code>null</code> if the wait does not use its history
+	 * @param durationMillis
+	 *        the time the condition took to become true
+	 */
+	public static void record(String key, long durationMillis) {
+
+		if (key == null || isTransient(key)) {
+			return; // would never be looked up again
+		}
+
+		history.computeIfAbsent(key, k -> new Samples()).add(durationMillis);
+
+		if (isSaveScheduled.compareAndSet(false, true)) {
+			Runtime.getRuntime().addShutdownHook(new Thread(WaitHistory::save, "wait-history-save"));
+		}
+	}
+
+	/**
+	 * Get the median duration of the recent successful waits with the given key
+	 *
+	 * @param key
+	 *        the wait key, see {@link #getKey(Object)}; <code>null</code> if the wait does not use its history
+	 * @return the median in milliseconds, or -1 if no wait was recorded
+	 */
+	public static long getMedian(String key) {
+
+		Samples samples = key == null ? null : history.get(key);
+
+		return samples == null ? -1 : samples.getPercentile(50);
+	}
+
+	/**
+	 * Get the timeout of the wait with the given key: the learned timeout if <b>wait.learned</b> is enabled and the wait has enough
+	 * history, otherwise the timeout given by the page object.<br>
+	 * Waits whose learned timeout exceeds <b>wait.learned.max</b> are logged as chronically slow
+	 *
+	 * @param key
+	 *        the wait key, see {@link #getKey(Object)}; <code>null</code> if the wait does not use its history
+	 * @param defaultMillis
+	 *        the timeout given by the page object
+	 * @return the timeout in milliseconds
+	 */
+	public static long getTimeoutMillis(String key, long defaultMillis) {
+
+		Samples samples = key == null ? null : history.get(key);
+
+		if (!isLearning || samples == null || samples.size() < MIN_LEARNING_SAMPLES) {
+			return defaultMillis;
+		}
+
+		long p99 = samples.getPercentile(99);
+		long learnedMillis = Math.round(p99 * learnedFactor);
+
+		if (learnedMillis > learnedMaxMillis && flaggedKeys.add(key)) {
+			LOG.warn("Chronically slow wait (p99 " + p99 + " ms): " + key);
+		}
+
+		return Math.max(learnedMinMillis, Math.min(learnedMaxMillis, learnedMillis));
+	}
+
+	/**
+	 * Get the key of a wait: the first stack frame outside of the wait classes and of the framework helpers (e.g. the page object method
+	 * calling a {@link automation.util.FormControls} primitive) and the condition, e.g.
+	 * <code>automation.pom.siit.ApplyToCoursePage.enterFirstName element to be clickable: Element located by By.name: ...</code>
+	 *
+	 * @param condition
+	 *        the condition of the wait
+	 * @return
+	 */
+	public static String getKey(Object condition) {
+
+		String callSite = "unknown";
+
+		for (StackTraceElement frame : Thread.currentThread().getStackTrace()) {
+
+			if (isWaitHelper(frame.getClassName())) {
+				continue;
+			}
+
+			callSite = frame.getClassName() + "." + frame.getMethodName();
+
+			break;
+		}
+
+		// the description of a located element starts with its session, e.g. "[[ChromeDriver: chrome on LINUX (id)] -> id: name]"
+		String description = String.valueOf(condition).replaceAll("\\[\\[[^\\]]*\\] -> ", "[").replaceAll("[\\t\\r\\n]", " ");
+
+		return callSite + " " + description;
+	}
+
+	/**
+	 * Tells if the given class (or its nested class) wraps the waits
+	 *
+	 * @param className
+	 *        the class name of a stack frame
+	 * @return
+	 */
+	private static boolean isWaitHelper(String className) {
+
+		int nestedIndex = className.indexOf('$');
+		String topLevelName = nestedIndex < 0 ? className : className.substring(0, nestedIndex);
+
+		return WAIT_HELPERS.contains(topLevelName);
+	}
+
+	/**
+	 * Tells if the given key contains an identity hash, so that it is different on every run
+	 *
+	 * @param key
+	 *        the wait key
+	 * @return
+	 */
+	private static boolean isTransient(String key) {
+		return TRANSIENT_KEY.matcher(key).find();
+	}
+
+	/**
+	 * Load the history saved by the previous runs
+	 *
+	 * @return
+	 */
+	private static Map<String, Samples> load() {
+
+		Map<String, Samples> loaded = new ConcurrentHashMap<>();
+
+		if (!Files.exists(historyFile)) {
+			return loaded;
+		}
+
+		try {
+
+			for (String line : Files.readAllLines(historyFile, StandardCharsets.UTF_8)) {
+
+				int separatorIndex = line.lastIndexOf('\t');
+
+				if (separatorIndex <= 0) {
+					continue;
+				}
+
+				Samples samples = new Samples();
+
+				for (String value : line.substring(separatorIndex + 1).split(",")) {
+					samples.add(Long.parseLong(value.trim()));
+				}
+
+				loaded.put(line.substring(0, separatorIndex), samples);
+			}
+
+		} catch (IOException | RuntimeException e) {
+			LOG.warn("Wait history could NOT be read: " + e.getMessage());
+		}
+
+		return loaded;
+	}
+
+	/**
+	 * Save the history, sorted by key, for the next runs
+	 */
+	private static void save() {
+
+		List<String> lines = new ArrayList<>();
+
+		for (Map.Entry<String, Samples> entry : new TreeMap<>(history).entrySet()) {
+
+			if (isTransient(entry.getKey())) {
+				continue; // e.g. found in a file edited by hand
+			}
+
+			lines.add(entry.getKey() + "\t" + entry.getValue());
+		}
+
+		try {
+
+			if (historyFile.getParent() != null) {
+				Files.createDirectories(historyFile.getParent());
+			}
+
+			Files.write(historyFile, lines, StandardCharsets.UTF_8);
+
+		} catch (IOException e) {
+			LOG.warn("Wait history was NOT saved: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Ring buffer of the last {@link WaitHistory#MAX_SAMPLES} durations
+	 */
+	private static final class Samples {
+
+		private final long[] values = new long[MAX_SAMPLES];
+		private int count;
+		private int next;
+
+		synchronized void add(long value) {
+
+			values[next] = value;
+			next = (next + 1) % MAX_SAMPLES;
+			count = Math.min(count + 1, MAX_SAMPLES);
+		}
+
+		synchronized int size() {
+			return count;
+		}
+
+		synchronized long getPercentile(int percentile) {
+
+			if (count == 0) {
+				return -1;
+			}
+
+			long[] sorted = Arrays.copyOf(values, count);
+
+			Arrays.sort(sorted);
+
+			int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+
+			return sorted[Math.max(0, index)];
+		}
+
+		/**
+		 * Get the durations from the oldest to the newest, separated by commas
+		 */
+		@Override
+		public synchronized String toString() {
+
+			StringBuilder builder = new StringBuilder();
+
+			for (int i = 0; i < count; i++) {
+
+				if (i > 0) {
+					builder.append(',');
+				}
+
+				builder.append(values[(next - count + i + MAX_SAMPLES) % MAX_SAMPLES]);
+			}
+
+			return builder.toString();
+		}
+	}
+
+}
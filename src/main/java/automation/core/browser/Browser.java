@@ -1,15 +1,27 @@
 package automation.core.browser;
 
 import static automation.util.LoggerUtil.CHECK_MARK;
+import static automation.util.StringUtil.getUrlOrigin;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.openqa.selenium.UnexpectedAlertBehaviour.ACCEPT;
 import static org.openqa.selenium.remote.CapabilityType.LOGGING_PREFS;
 import static org.openqa.selenium.remote.CapabilityType.UNEXPECTED_ALERT_BEHAVIOUR;
+import static org.openqa.selenium.support.ui.ExpectedConditions.elementToBeClickable;
 
-import java.io.File;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.logging.Level;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebDriver.Options;
 import org.openqa.selenium.WebDriver.Timeouts;
 import org.openqa.selenium.WebDriver.Window;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -20,9 +32,12 @@ import org.openqa.selenium.firefox.FirefoxProfile;
 import org.openqa.selenium.logging.LogType;
 import org.openqa.selenium.logging.LoggingPreferences;
 import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.support.events.EventFiringWebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
 
+import automation.core.TestContext;
 import automation.core.listeners.TestEventListener;
 import automation.core.logging.MessageLogger;
 import automation.core.properties.Settings;
@@ -37,9 +52,27 @@ public class Browser {
 
     private static final MessageLogger LOG = new MessageLogger(Browser.class);
 
+    /**
+     * The asynchronous script timeout of every browser, in seconds
+     */
+    public static final int SCRIPT_TIMEOUT = 30;
+
+    /**
+     * The page load timeout of every browser, in seconds
+     */
+    public static final int PAGE_LOAD_TIMEOUT = 80;
+
     private WebDriver driver;
     private BrowserName browserName;
     private String url;
+    private boolean cookiesAccepted;
+    private int testCount;
+    private DriverServer driverServer;
+    private BrowserHealth health;
+    private List<Cookie> seedCookies = Collections.emptyList();
+    private long pageLoadTimeoutMillis;
+    private long scriptTimeoutMillis;
+    private long timeoutsCapMillis;
 
     public Browser(BrowserName browserName, String url) {
         this.browserName = browserName;
@@ -79,9 +112,21 @@ public class Browser {
             break;
         }
 
+        long healthCheckInterval = SECONDS.toMillis(Settings.getInstance().getHealthCheckInterval());
+
+        health = new BrowserHealth(((RemoteWebDriver) driver).getCapabilities(), healthCheckInterval);
+
         configureTimeouts();
 
-        maximizeBrowserWindow();
+        if (!Settings.getInstance().isHeadless() || browserName == BrowserName.SAFARI) {
+            maximizeBrowserWindow(); // in headless mode the viewport size is set through the launch arguments (Safari has no headless mode)
+        }
+
+        seedCookies = Settings.getInstance().getSeedCookies();
+
+        if (!seedCookies.isEmpty()) {
+            injectSeedCookies(); // before the first load of the start URL, so that the cookie banner is never rendered
+        }
 
         driver.get(url); // load the provided URL address
 
@@ -118,35 +163,256 @@ public class Browser {
         return browserName;
     }
 
+    /**
+     * Get the {@link BrowserHealth} of this browser
+     *
+     * @return
+     */
+    public BrowserHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * Get the number of tests that have run in this browser
+     *
+     * @return
+     */
+    public int getTestCount() {
+        return testCount;
+    }
+
+    /**
+     * Mark the start of a new test in this browser
+     */
+    public void countTest() {
+        testCount++;
+    }
+
+    /**
+     * Bring the browser back to a clean state without restarting it: close the extra windows, clear the cookies, localStorage and
+     * sessionStorage, then navigate back to the start URL.<br>
+     * The reset stops between two steps when its thread is interrupted (see {@link BrowserSession#resetBrowser()})
+     */
+    public void resetState() {
+
+        Iterator<String> handles = driver.getWindowHandles().iterator();
+
+        String mainWindow = handles.next();
+
+        while (handles.hasNext()) {
+
+            checkNotInterrupted();
+
+            driver.switchTo().window(handles.next());
+
+            driver.close();
+        }
+
+        checkNotInterrupted();
+
+        driver.switchTo().window(mainWindow);
+
+        driver.manage().deleteAllCookies();
+
+        checkNotInterrupted();
+
+        ((JavascriptExecutor) driver).executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) { }");
+
+        cookiesAccepted = false;
+
+        if (!seedCookies.isEmpty()) {
+            injectSeedCookies();
+        }
+
+        checkNotInterrupted();
+
+        driver.get(url);
+    }
+
+    /**
+     * Stop the browser state reset if it was cancelled
+     *
+     * @throws WebDriverException
+     *         if the current thread is interrupted
+     */
+    private static void checkNotInterrupted() {
+
+        if (Thread.currentThread().isInterrupted()) {
+            throw new WebDriverException("Browser state reset cancelled");
+        }
+    }
+
+    /**
+     * Closes the footer bar message by accepting the cookies, unless they were already accepted or pre-seeded in this browser
+     */
+    public void acceptCookies() {
+
+        if (cookiesAccepted) {
+            return;
+        }
+
+        By btnAcceptCookies = By.id("cn-accept-cookie");
+
+        if (driver.findElements(btnAcceptCookies).isEmpty()) {
+            return;
+        }
+
+        new WebDriverWait(driver, 10) //
+                .withTimeout(Duration.ofMillis(TestContext.limitTimeout(SECONDS.toMillis(10))))
+                .until(elementToBeClickable(btnAcceptCookies));
+
+        driver.findElement(btnAcceptCookies).click();
+
+        cookiesAccepted = true;
+    }
+
+    /**
+     * Lower the page load and script timeouts to the given value (typically the time budget left to the test), or put back the defaults.<br>
+     * The timeouts are only sent to the browser when they change
+     *
+     * @param maxMillis
+     *        the maximum timeout, in milliseconds
+     */
+    public void limitTimeouts(long maxMillis) {
+
+        timeoutsCapMillis = maxMillis;
+
+        long pageLoadMillis = Math.min(SECONDS.toMillis(PAGE_LOAD_TIMEOUT), maxMillis);
+        long scriptMillis = Math.min(SECONDS.toMillis(SCRIPT_TIMEOUT), maxMillis);
+
+        Timeouts timeouts = driver.manage().timeouts();
+
+        if (pageLoadMillis != pageLoadTimeoutMillis) {
+
+            timeouts.pageLoadTimeout(pageLoadMillis, MILLISECONDS);
+
+            pageLoadTimeoutMillis = pageLoadMillis;
+        }
+
+        if (scriptMillis != scriptTimeoutMillis) {
+
+            timeouts.setScriptTimeout(scriptMillis, MILLISECONDS);
+
+            scriptTimeoutMillis = scriptMillis;
+        }
+    }
+
+    /**
+     * Cap the page load and script timeouts to the time budget left to the running test (or put back the defaults outside of a budgeted
+     * test).<br>
+     * The cap is only lowered again once it exceeds the budget left by more than a third, so that the timeouts are sent a few times per test
+     * rather than before every call
+     *
+     * @throws org.openqa.selenium.TimeoutException
+     *         if the test has spent its whole time budget
+     */
+    public void applyTestBudget() {
+
+        long remainingMillis = TestContext.limitTimeout(Long.MAX_VALUE);
+
+        if (remainingMillis <= timeoutsCapMillis && remainingMillis > timeoutsCapMillis / 4 * 3) {
+            return;
+        }
+
+        limitTimeouts(remainingMillis);
+    }
+
+    /**
+     * Get the current script timeout of the browser
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getScriptTimeoutMillis() {
+        return scriptTimeoutMillis;
+    }
+
     /**
      * Close the current window, quitting the browser if it's the last window currently open
      */
     public void closeBrowser() {
+
         driver.close();
+
+        health.invalidate(); // it may have been the last window
     }
 
     /**
-     * Initializes the Firefox Driver
+     * Quit the browser, closing every associated window, and give back its driver server
+     */
+    public void quit() {
+
+        boolean isQuit = false;
+
+        try {
+
+            if (driver != null) {
+                driver.quit();
+            }
+
+            isQuit = true;
+
+        } finally {
+
+            if (isQuit) {
+                DriverServer.release(driverServer);
+            } else {
+                DriverServer.discard(driverServer); // the session may still be attached to it
+            }
+
+            driverServer = null;
+        }
+    }
+
+    /**
+     * Initializes the Firefox Driver, attached to a shared geckodriver process
      */
     private void setupFirefoxDriver() {
-   
-        File gekoDriver = new File("./lib/geckodriver");
-   
-        System.setProperty("webdriver.gecko.driver", gekoDriver.getAbsolutePath());
-   
-        driver = new FirefoxDriver(getFirefoxOptions());
+
+        driverServer = DriverServer.acquire(BrowserName.FIREFOX);
+
+        try {
+
+            driver = new RemoteWebDriver(driverServer.getUrl(), getFirefoxOptions());
+
+        } catch (RuntimeException e) {
+
+            DriverServer.release(driverServer); // no session was started, the geckodriver is still free
+
+            driverServer = null;
+
+            throw e;
+        }
     }
 
     /**
-     * Initializes the Chrome Driver
+     * Initializes the Chrome Driver, attached to the shared chromedriver process
      */
     private void setupChromeDriver() {
-   
-        File chromeDriver = new File("./lib/chromedriver");
-   
-        System.setProperty("webdriver.chrome.driver", chromeDriver.getAbsolutePath());
-   
-        driver = new ChromeDriver(getChromeOptions());
+
+        driverServer = DriverServer.acquire(BrowserName.CHROME);
+
+        driver = new RemoteWebDriver(driverServer.getUrl(), getChromeOptions());
+    }
+
+    /**
+     * Add the <b>browser.cookies</b> to a clean cookie jar. Cookies can only be set for the domain of the loaded page, so a lightweight
+     * resource of the start URL's origin is loaded first, instead of the start page itself
+     */
+    private void injectSeedCookies() {
+
+        driver.get(getUrlOrigin(url) + "/robots.txt");
+
+        Options options = driver.manage();
+
+        options.deleteAllCookies();
+
+        for (Cookie cookie : seedCookies) {
+            options.addCookie(cookie);
+        }
+
+        cookiesAccepted = true; // the consent cookie is expected among the seeded ones
+
+        LOG.info(" " + CHECK_MARK + " Seeded " + seedCookies.size() + " cookies");
     }
 
     /**
@@ -160,7 +426,9 @@ public class Browser {
    
         EventFiringWebDriver eventFiringDriver = eventWebDriver.register(eventListener);
    
-        eventFiringDriver.manage().deleteAllCookies();
+        if (seedCookies.isEmpty()) {
+            eventFiringDriver.manage().deleteAllCookies(); // the seeded cookies were added to an already empty cookie jar
+        }
    
         driver = eventFiringDriver;
    
@@ -182,10 +450,7 @@ public class Browser {
      */
     private void configureTimeouts() {
    
-        Timeouts timeouts = driver.manage().timeouts();
-   
-        timeouts.pageLoadTimeout(80, SECONDS);
-        timeouts.setScriptTimeout(30, SECONDS);
+        limitTimeouts(Long.MAX_VALUE);
     }
 
     /**
@@ -215,6 +480,16 @@ public class Browser {
         profile.setPreference("browser.tabs.loadInBackground", true);
         profile.setPreference("focusmanager.testmode", true); // handle focus & blur events when the browser window doesn't have focus
 
+        Settings settings = Settings.getInstance();
+
+        if (settings.isHeadless()) {
+
+            Dimension viewport = settings.getViewportSize();
+
+            options.setHeadless(true);
+            options.addArguments("--width=" + viewport.getWidth(), "--height=" + viewport.getHeight());
+        }
+
         options.setCapability(FirefoxDriver.PROFILE, profile);
         options.setCapability(CapabilityType.UNEXPECTED_ALERT_BEHAVIOUR, ACCEPT);
         // options.setCapability("marionette", false);
@@ -235,7 +510,19 @@ public class Browser {
         logPreferences.enable(LogType.BROWSER, Level.ALL);
 
         options.addArguments("disable-infobars");
-        options.addArguments("--start-maximized");
+
+        Settings settings = Settings.getInstance();
+
+        if (settings.isHeadless()) {
+
+            Dimension viewport = settings.getViewportSize();
+
+            options.setHeadless(true);
+            options.addArguments("--window-size=" + viewport.getWidth() + "," + viewport.getHeight());
+
+        } else {
+            options.addArguments("--start-maximized");
+        }
 
         options.setCapability(LOGGING_PREFS, logPreferences);
         options.setCapability(UNEXPECTED_ALERT_BEHAVIOUR, ACCEPT);
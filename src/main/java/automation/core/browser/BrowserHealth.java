@@ -0,0 +1,255 @@
+package automation.core.browser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Health data of a {@link Browser}: its age, the cached result of the last liveness check and the resident memory (RSS) of its
+ * processes, read from <code>/proc</code> on Linux
+ *
+ * @author alexgabor
+ *
+ */
+public class BrowserHealth {
+
+	private static final Path PROC = Paths.get("/proc");
+
+	private final long createdAt = System.currentTimeMillis();
+	private final long checkIntervalMillis;
+
+	private final String chromeUserDataDir;
+	private final Long firefoxPid;
+
+	private volatile boolean alive;
+	private volatile long aliveCheckedAt;
+	private volatile long rssKb;
+
+	public BrowserHealth(Capabilities capabilities, long checkIntervalMillis) {
+
+		this.checkIntervalMillis = checkIntervalMillis;
+		this.chromeUserDataDir = getChromeUserDataDir(capabilities);
+		this.firefoxPid = getFirefoxPid(capabilities);
+	}
+
+	/**
+	 * Tells if the browser still has at least one window open.<br>
+	 * A positive answer is cached for the health check interval, to avoid a WebDriver round trip on every call
+	 *
+	 * @param driver
+	 *        the {@link WebDriver} of the browser
+	 * @return
+	 */
+	public boolean isAlive(WebDriver driver) {
+
+		long now = System.currentTimeMillis();
+
+		if (alive && now - aliveCheckedAt < checkIntervalMillis) {
+			return true;
+		}
+
+		try {
+			alive = driver != null && driver.getWindowHandles().size() > 0;
+		} catch (WebDriverException e) { // e.g. UnreachableBrowserException, NoSuchSessionException
+			alive = false;
+		}
+
+		aliveCheckedAt = now;
+
+		return alive;
+	}
+
+	/**
+	 * Discard the cached liveness, forcing a real check next time
+	 */
+	public void invalidate() {
+		alive = false;
+	}
+
+	/**
+	 * Get the number of milliseconds since the browser was opened
+	 *
+	 * @return
+	 */
+	public long getAgeMillis() {
+		return System.currentTimeMillis() - createdAt;
+	}
+
+	/**
+	 * Get the resident memory of the browser processes, as of the last {@link #updateRss()} call
+	 *
+	 * @return the RSS in kilobytes, 0 if it could not be measured
+	 */
+	public long getRssKb() {
+		return rssKb;
+	}
+
+	/**
+	 * Measure the resident memory of the browser process and all its child processes (renderers, GPU, content processes)
+	 */
+	public void updateRss() {
+
+		if (chromeUserDataDir == null && firefoxPid == null) {
+			return;
+		}
+
+		Map<Long, List<Long>> children = new HashMap<>();
+		Set<Long> roots = new HashSet<>();
+
+		try (DirectoryStream<Path> processes = Files.newDirectoryStream(PROC, "[0-9]*")) {
+
+			for (Path process : processes) {
+
+				long pid = Long.parseLong(process.getFileName().toString());
+				long parentPid = readParentPid(process);
+
+				children.computeIfAbsent(parentPid, key -> new ArrayList<>()).add(pid);
+
+				if (isBrowserRoot(pid, process)) {
+					roots.add(pid);
+				}
+			}
+
+		} catch (IOException | RuntimeException e) {
+			return; // not on Linux, or the process table changed while reading it
+		}
+
+		long totalKb = 0;
+		Set<Long> visited = new HashSet<>();
+		Deque<Long> queue = new ArrayDeque<>(roots);
+
+		while (!queue.isEmpty()) {
+
+			Long pid = queue.poll();
+
+			if (!visited.add(pid)) {
+				continue;
+			}
+
+			totalKb += readRssKb(PROC.resolve(pid.toString()));
+
+			queue.addAll(children.getOrDefault(pid, new ArrayList<>()));
+		}
+
+		rssKb = totalKb;
+	}
+
+	/**
+	 * Tells if the given process is the browser process (or one of its processes started with the same profile)
+	 *
+	 * @param pid
+	 *        the process id
+	 * @param process
+	 *        the <code>/proc/[pid]</code> folder
+	 * @return
+	 */
+	private boolean isBrowserRoot(long pid, Path process) {
+
+		if (firefoxPid != null) {
+			return firefoxPid == pid;
+		}
+
+		try {
+
+			String commandLine = new String(Files.readAllBytes(process.resolve("cmdline")), StandardCharsets.UTF_8);
+
+			return commandLine.contains("--user-data-dir=" + chromeUserDataDir);
+
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Read the parent process id from <code>/proc/[pid]/stat</code>
+	 *
+	 * @param process
+	 *        the <code>/proc/[pid]</code> folder
+	 * @return
+	 * @throws IOException
+	 */
+	private static long readParentPid(Path process) throws IOException {
+
+		String stat = new String(Files.readAllBytes(process.resolve("stat")), StandardCharsets.UTF_8);
+
+		// the process name is between parentheses and may contain spaces: "pid (name) state ppid ..."
+		String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+
+		return Long.parseLong(fields[1]);
+	}
+
+	/**
+	 * Read the VmRSS value from <code>/proc/[pid]/status</code>
+	 *
+	 * @param process
+	 *        the <code>/proc/[pid]</code> folder
+	 * @return the RSS in kilobytes, 0 if the process is gone
+	 */
+	private static long readRssKb(Path process) {
+
+		try {
+
+			for (String line : Files.readAllLines(process.resolve("status"), StandardCharsets.UTF_8)) {
+
+				if (line.startsWith("VmRSS:")) {
+					return Long.parseLong(line.replaceAll("[^0-9]", ""));
+				}
+			}
+
+		} catch (IOException | RuntimeException e) {
+			// the process ended in the meantime
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Get the profile folder chromedriver reports for the session, which identifies the browser processes on the command line
+	 *
+	 * @param capabilities
+	 *        the session {@link Capabilities}
+	 * @return
+	 */
+	private static String getChromeUserDataDir(Capabilities capabilities) {
+
+		Object chrome = capabilities == null ? null : capabilities.getCapability("chrome");
+
+		if (!(chrome instanceof Map)) {
+			return null;
+		}
+
+		Object userDataDir = ((Map<?, ?>) chrome).get("userDataDir");
+
+		return userDataDir == null ? null : userDataDir.toString();
+	}
+
+	/**
+	 * Get the browser process id geckodriver reports for the session
+	 *
+	 * @param capabilities
+	 *        the session {@link Capabilities}
+	 * @return
+	 */
+	private static Long getFirefoxPid(Capabilities capabilities) {
+
+		Object pid = capabilities == null ? null : capabilities.getCapability("moz:processID");
+
+		return pid instanceof Number ? ((Number) pid).longValue() : null;
+	}
+
+}
@@ -0,0 +1,596 @@
+package automation.core.browser;
+
+import static automation.util.LoggerUtil.CHECK_MARK;
+import static automation.util.LoggerUtil.logThrowableCause;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import automation.core.logging.MessageLogger;
+import automation.core.properties.Settings;
+
+/**
+ * Bounded, thread-safe pool of {@link Browser} instances.<br>
+ * A {@link Browser} is checked out by one test thread at a time and is either returned to the pool or discarded when the thread is done with it.
+ * The pool size is configured through the <b>browser.pool.min</b> and <b>browser.pool.max</b> properties (see {@link Settings}).<br>
+ * When <b>browser.prewarm</b> is set, the pool keeps that many browsers opening in the background, already on the start URL and with the cookie
+ * banner dismissed, so that a checkout does not wait for the browser start-up.<br>
+ * Browsers older than <b>browser.recycle.age</b>, having run more than <b>browser.recycle.tests</b> tests or using more memory than
+ * <b>browser.recycle.rss</b> are quit in the background and replaced
+ *
+ * @author alexgabor
+ *
+ */
+public class BrowserPool {
+
+	private static final MessageLogger LOG = new MessageLogger(BrowserPool.class);
+
+	private static BrowserPool instance = null;
+
+	private final int minSize;
+	private final int maxSize;
+	private final int prewarmCount;
+	private final int checkoutTimeout;
+	private final long maxAgeMillis;
+	private final int maxTests;
+	private final long maxRssKb;
+
+	private final ReentrantLock lock = new ReentrantLock(true);
+	private final Condition available = lock.newCondition();
+
+	private final Deque<Browser> idleBrowsers = new ArrayDeque<>();
+	private final Set<Browser> allBrowsers = new HashSet<>();
+
+	private final ExecutorService warmer;
+	private final ScheduledExecutorService healthMonitor;
+
+	private int openCount; // browsers owned by the pool, including the ones being opened
+	private int warmingCount;
+
+	private BrowserPool(Settings settings) {
+
+		this.maxSize = Math.max(1, settings.getPoolMaxSize());
+		this.minSize = Math.max(0, Math.min(settings.getPoolMinSize(), this.maxSize));
+		this.prewarmCount = Math.max(0, Math.min(settings.getPrewarmCount(), this.maxSize));
+		this.checkoutTimeout = settings.getPoolCheckoutTimeout();
+		this.maxAgeMillis = MINUTES.toMillis(settings.getRecycleMaxAge());
+		this.maxTests = settings.getRecycleMaxTests();
+		this.maxRssKb = settings.getRecycleMaxRss() * 1024L;
+
+		this.warmer = this.prewarmCount == 0 ? null : Executors.newFixedThreadPool(this.prewarmCount, runnable -> newDaemonThread(runnable, "browser-prewarm"));
+
+		boolean isRecycling = maxAgeMillis > 0 || maxTests > 0 || maxRssKb > 0;
+
+		this.healthMonitor = !isRecycling ? null : Executors.newSingleThreadScheduledExecutor(runnable -> newDaemonThread(runnable, "browser-health"));
+
+		if (healthMonitor != null) {
+
+			int interval = Math.max(1, settings.getHealthCheckInterval());
+
+			healthMonitor.scheduleWithFixedDelay(this::checkHealth, interval, interval, SECONDS);
+		}
+
+		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "browser-pool-shutdown"));
+	}
+
+	public static synchronized BrowserPool getInstance() {
+
+		if (instance == null) {
+
+			instance = new BrowserPool(Settings.getInstance());
+
+			instance.fill();
+
+			instance.scheduleWarmUp();
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Get the maximum number of browsers this pool can hold
+	 *
+	 * @return
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Take a {@link Browser} out of the pool, opening a new one if no idle browser is available.<br>
+	 * Blocks while the pool is exhausted, up to <b>browser.pool.checkout.timeout</b> seconds
+	 *
+	 * @param url
+	 *        the URL a newly opened browser navigates to
+	 * @return the checked out {@link Browser}
+	 */
+	public Browser checkout(String url) {
+
+		long deadline = System.nanoTime() + SECONDS.toNanos(checkoutTimeout);
+
+		while (true) {
+
+			Browser browser = reserve(deadline);
+
+			if (browser == null) {
+
+				browser = openReservedBrowser(url, false);
+
+			} else if (!BrowserSession.isBrowserActive(browser)) {
+
+				discard(browser);
+
+				continue; // its slot is free again, taken within the same deadline
+			}
+
+			scheduleWarmUp(); // replace the browser that was just taken
+
+			return browser;
+		}
+	}
+
+	/**
+	 * Return a {@link Browser} to the pool so that it can be checked out by another thread
+	 *
+	 * @param browser
+	 *        the {@link Browser} previously obtained through {@link #checkout(String)}
+	 */
+	public void release(Browser browser) {
+
+		if (recycleIfExpired(browser)) {
+			return;
+		}
+
+		lock.lock();
+
+		try {
+
+			if (browser == null || !allBrowsers.contains(browser)) {
+				return;
+			}
+
+			idleBrowsers.offerFirst(browser);
+
+			available.signal();
+
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Quit the given {@link Browser} and free its slot in the pool
+	 *
+	 * @param browser
+	 *        the {@link Browser} previously obtained through {@link #checkout(String)}
+	 */
+	public void discard(Browser browser) {
+
+		lock.lock();
+
+		try {
+
+			if (browser == null || !allBrowsers.remove(browser)) {
+				return;
+			}
+
+			idleBrowsers.remove(browser);
+
+			openCount--;
+
+			available.signal();
+
+		} finally {
+			lock.unlock();
+		}
+
+		quit(browser);
+
+		scheduleWarmUp();
+	}
+
+	/**
+	 * Quit the given {@link Browser} in the background if it crossed one of the recycling thresholds.<br>
+	 * The caller must no longer use the browser when <code>true</code> is returned
+	 *
+	 * @param browser
+	 *        the {@link Browser} previously obtained through {@link #checkout(String)}
+	 * @return <code>true</code> if the browser is being recycled
+	 */
+	public boolean recycleIfExpired(Browser browser) {
+
+		String reason = getRecycleReason(browser);
+
+		if (reason == null) {
+			return false;
+		}
+
+		LOG.info("Recycling browser (" + reason + ")");
+
+		healthMonitor.execute(() -> discard(browser));
+
+		return true;
+	}
+
+	/**
+	 * Quit all the idle browsers held by the pool, stop pre-warming new ones and stop the driver servers
+	 */
+	public void shutdown() {
+
+		if (warmer != null) {
+			warmer.shutdownNow();
+		}
+
+		if (healthMonitor != null) {
+			healthMonitor.shutdownNow();
+		}
+
+		Browser browser;
+
+		while ((browser = pollIdleForShutdown()) != null) {
+			quit(browser);
+		}
+
+		DriverServer.stopAll();
+	}
+
+	/**
+	 * Take an idle browser out of the pool or reserve a slot for a new one, waiting while the pool is exhausted
+	 *
+	 * @param deadline
+	 *        the {@link System#nanoTime()} after which the checkout fails
+	 * @return the idle {@link Browser}, or <code>null</code> if a slot was reserved
+	 */
+	private Browser reserve(long deadline) {
+
+		lock.lock();
+
+		try {
+
+			while (true) {
+
+				Browser browser = idleBrowsers.pollFirst();
+
+				if (browser != null) {
+					return browser;
+				}
+
+				if (openCount < maxSize) {
+
+					openCount++;
+
+					return null;
+				}
+
+				long remainingNanos = deadline - System.nanoTime();
+
+				if (remainingNanos <= 0) {
+					throw new IllegalStateException("No browser became available in the pool after " + checkoutTimeout + " seconds (max size " + maxSize + ")");
+				}
+
+				available.awaitNanos(remainingNanos);
+			}
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("Interrupted while waiting for a browser from the pool", e);
+
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Open the minimum number of browsers configured for this pool
+	 */
+	private void fill() {
+
+		String url = Settings.getInstance().getURL();
+
+		while (true) {
+
+			lock.lock();
+
+			try {
+
+				if (openCount >= minSize) {
+					return;
+				}
+
+				openCount++;
+
+			} finally {
+				lock.unlock();
+			}
+
+			release(openReservedBrowser(url, false));
+		}
+	}
+
+	/**
+	 * Start opening browsers in the background until <b>browser.prewarm</b> browsers are idle or warming up
+	 */
+	private void scheduleWarmUp() {
+
+		if (warmer == null || warmer.isShutdown()) {
+			return;
+		}
+
+		lock.lock();
+
+		try {
+
+			while (idleBrowsers.size() + warmingCount < prewarmCount && openCount < maxSize) {
+
+				openCount++;
+				warmingCount++;
+
+				warmer.execute(this::warmUp);
+			}
+
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Open a browser on the start URL, dismiss the cookie banner and make it available for checkout
+	 */
+	private void warmUp() {
+
+		Browser browser = null;
+
+		try {
+
+			browser = openReservedBrowser(Settings.getInstance().getURL(), true);
+
+		} catch (RuntimeException e) {
+
+			LOG.error("Exception thrown when pre-warming a browser: \n" + e.getMessage());
+
+			logThrowableCause(e);
+
+		} finally {
+
+			lock.lock();
+
+			try {
+
+				warmingCount--;
+
+				if (browser != null) {
+
+					idleBrowsers.offerLast(browser);
+
+					available.signal();
+				}
+
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Open a new {@link Browser} in a slot already reserved by incrementing the open count
+	 *
+	 * @param url
+	 *        the URL to navigate to
+	 * @param isWarmUp
+	 *        <code>true</code> if the cookie banner should be dismissed as well
+	 * @return
+	 */
+	private Browser openReservedBrowser(String url, boolean isWarmUp) {
+
+		Browser browser = null;
+
+		try {
+
+			browser = new Browser(Settings.getInstance().getBrowserName(), url).open();
+
+			if (isWarmUp) {
+
+				browser.acceptCookies();
+
+				LOG.info(" " + CHECK_MARK + " Pre-warmed browser ready");
+			}
+
+		} catch (RuntimeException e) {
+
+			lock.lock();
+
+			try {
+
+				openCount--;
+
+				available.signal();
+
+			} finally {
+				lock.unlock();
+			}
+
+			if (browser != null) {
+				quit(browser);
+			}
+
+			throw e;
+		}
+
+		lock.lock();
+
+		try {
+
+			allBrowsers.add(browser);
+
+			LOG.info(" " + CHECK_MARK + " Pool opened browser " + openCount + "/" + maxSize);
+
+		} finally {
+			lock.unlock();
+		}
+
+		return browser;
+	}
+
+	/**
+	 * Measure the memory of all the browsers and recycle the idle ones that crossed a threshold
+	 */
+	private void checkHealth() {
+
+		List<Browser> browsers;
+		List<Browser> expired = new ArrayList<>();
+
+		lock.lock();
+
+		try {
+			browsers = new ArrayList<>(allBrowsers);
+		} finally {
+			lock.unlock();
+		}
+
+		if (maxRssKb > 0) {
+
+			for (Browser browser : browsers) {
+				browser.getHealth().updateRss(); // only reads /proc, safe for browsers in use
+			}
+		}
+
+		lock.lock();
+
+		try {
+
+			Iterator<Browser> idle = idleBrowsers.iterator();
+
+			while (idle.hasNext()) {
+
+				Browser browser = idle.next();
+
+				if (getRecycleReason(browser) != null) {
+
+					idle.remove();
+
+					expired.add(browser);
+				}
+			}
+
+		} finally {
+			lock.unlock();
+		}
+
+		for (Browser browser : expired) {
+
+			LOG.info("Recycling idle browser (" + getRecycleReason(browser) + ")");
+
+			discard(browser);
+		}
+	}
+
+	/**
+	 * Get the reason for which the given browser should be recycled
+	 *
+	 * @param browser
+	 *        the {@link Browser} to check
+	 * @return the crossed threshold, or <code>null</code> if the browser is healthy or recycling is disabled
+	 */
+	private String getRecycleReason(Browser browser) {
+
+		if (healthMonitor == null || browser == null || browser.getHealth() == null) {
+			return null;
+		}
+
+		BrowserHealth health = browser.getHealth();
+
+		if (maxAgeMillis > 0 && health.getAgeMillis() > maxAgeMillis) {
+			return "age " + MILLISECONDS.toMinutes(health.getAgeMillis()) + " min";
+		}
+
+		if (maxTests > 0 && browser.getTestCount() >= maxTests) {
+			return browser.getTestCount() + " tests";
+		}
+
+		if (maxRssKb > 0 && health.getRssKb() > maxRssKb) {
+			return "RSS " + health.getRssKb() / 1024 + " MB";
+		}
+
+		return null;
+	}
+
+	/**
+	 * Remove the next idle browser from the pool, during shutdown
+	 *
+	 * @return the idle {@link Browser}, or <code>null</code> if there is none
+	 */
+	private Browser pollIdleForShutdown() {
+
+		lock.lock();
+
+		try {
+
+			Browser browser = idleBrowsers.pollFirst();
+
+			if (browser != null) {
+
+				allBrowsers.remove(browser);
+
+				openCount--;
+			}
+
+			return browser;
+
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Quit the given {@link Browser}
+	 *
+	 * @param browser
+	 *        the {@link Browser} to quit
+	 */
+	private static void quit(Browser browser) {
+
+		try {
+
+			browser.quit();
+
+		} catch (Exception e) {
+			LOG.error("Exception thrown when quitting the WebDriver: \n" + e.getMessage());
+
+			logThrowableCause(e);
+		}
+	}
+
+	/**
+	 * Create a daemon thread, so that the background work never keeps the JVM alive
+	 *
+	 * @param runnable
+	 *        the task of the thread
+	 * @param name
+	 *        the thread name
+	 * @return
+	 */
+	private static Thread newDaemonThread(Runnable runnable, String name) {
+
+		Thread thread = new Thread(runnable, name);
+
+		thread.setDaemon(true);
+
+		return thread;
+	}
+
+}
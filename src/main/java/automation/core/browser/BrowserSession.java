@@ -1,16 +1,23 @@
 package automation.core.browser;
 
 import static automation.util.LoggerUtil.CHECK_MARK;
-import static automation.util.LoggerUtil.logThrowableCause;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.remote.UnreachableBrowserException;
 
+import automation.core.listeners.TestEventListener;
 import automation.core.logging.MessageLogger;
 import automation.core.properties.Settings;
 
 /**
- * Class in charge with the setup of a test session
+ * Class in charge with the setup of a test session.<br>
+ * Each test thread is bound to its own {@link Browser}, checked out from the {@link BrowserPool}
  *
  * @author alexgabor
  *
@@ -19,7 +26,17 @@ public class BrowserSession {
 
 	private static final MessageLogger LOG = new MessageLogger(BrowserSession.class);
 
-	private Browser browser;
+	/** Runs the browser state resets, which are cancelled (interrupted) when they time out */
+	private static final ExecutorService resetter = Executors.newCachedThreadPool(runnable -> {
+
+		Thread thread = new Thread(runnable, "browser-reset");
+
+		thread.setDaemon(true);
+
+		return thread;
+	});
+
+	private final ThreadLocal<Browser> threadBrowser = new ThreadLocal<>();
 
 	private static BrowserSession instance = null;
 
@@ -37,39 +54,49 @@ public class BrowserSession {
 	}
 
 	/**
-	 * Tells if there is a browser instance active
+	 * Tells if there is a browser instance active for the current thread
 	 *
 	 * @return <code>true</code> if there is at least one browser window open; <code>false</code> otherwise
 	 */
 	public static boolean isBrowserActive() {
-		
-		try {
-	
-			WebDriver driver = BrowserSession.getInstance().getWebDriver();
-	
-			return driver != null && driver.getWindowHandles().size() > 0;
-	
-		} catch (UnreachableBrowserException e) {
+
+		return isBrowserActive(BrowserSession.getInstance().getBrowser());
+	}
+
+	/**
+	 * Tells if the given {@link Browser} is active. The answer is cached between health checks (see {@link BrowserHealth#isAlive(WebDriver)})
+	 *
+	 * @param browser
+	 *        the {@link Browser} to check
+	 * @return <code>true</code> if there is at least one browser window open; <code>false</code> otherwise
+	 */
+	public static boolean isBrowserActive(Browser browser) {
+
+		if (browser == null || browser.getHealth() == null) {
 			return false;
 		}
+
+		return browser.getHealth().isAlive(browser.getWebDriver());
 	}
-	
+
 	/**
-	 * Get the {@link Browser} that is used in this session
+	 * Get the {@link Browser} bound to the current thread
 	 * 
 	 * @return
 	 */
 	public Browser getBrowser() {
-		return browser;
+		return threadBrowser.get();
 	}
 
 	/**
-	 * Get the {@link WebDriver} instances
+	 * Get the {@link WebDriver} instance bound to the current thread
 	 * 
 	 * @return
 	 */
 	public WebDriver getWebDriver() {
 
+		Browser browser = threadBrowser.get();
+
 		if (browser == null) {
 			return null;
 		}
@@ -78,27 +105,86 @@ public class BrowserSession {
 	}
 
 	/**
-	 * Quits the Selenium driver, closing every associated window
+	 * Quits the Selenium driver of the current thread, closing every associated window
 	 */
 	public void quitDriver() {
 
+		Browser browser = threadBrowser.get();
+
+		if (browser == null) {
+			return;
+		}
+
+		threadBrowser.remove();
+
+		BrowserPool.getInstance().discard(browser);
+	}
+
+	/**
+	 * Unbinds the browser from the current thread and returns it to the {@link BrowserPool}, keeping it open
+	 */
+	public void releaseBrowser() {
+
+		Browser browser = threadBrowser.get();
+
 		if (browser == null) {
 			return;
 		}
 
-		WebDriver driver = browser.getWebDriver();
+		threadBrowser.remove();
+
+		BrowserPool.getInstance().release(browser);
+	}
+
+	/**
+	 * Reset the state of the current thread's browser if a test already ran in it (see {@link Browser#resetState()}).<br>
+	 * The browser is restarted if the reset fails or takes longer than <b>browser.reset.timeout</b> seconds
+	 *
+	 * @throws IllegalStateException
+	 *         if the thread is interrupted while waiting for the reset, which is cancelled
+	 */
+	public void resetBrowser() {
+
+		Browser browser = threadBrowser.get();
+
+		if (browser == null || browser.getTestCount() == 0) {
+			return;
+		}
+
+		int resetTimeout = Settings.getInstance().getResetTimeout();
+
+		Future<?> reset = resetter.submit(browser::resetState);
 
 		try {
 
-			if (driver != null) {
-				driver.quit();
-			}
+			reset.get(resetTimeout, SECONDS);
+
+			LOG.info(" " + CHECK_MARK + " Reset browser state");
+
+			return;
+
+		} catch (TimeoutException e) {
+
+			LOG.warn("Browser state reset took longer than " + resetTimeout + " seconds, restarting the browser");
+
+		} catch (ExecutionException e) {
+
+			LOG.warn("Browser state reset failed, restarting the browser: " + e.getCause());
 
-		} catch (Exception e) {
-			LOG.error("Exception thrown when quitting the WebDriver: \n" + e.getMessage());
+		} catch (InterruptedException e) {
 
-			logThrowableCause(e);
+			reset.cancel(true);
+
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("Interrupted while resetting the browser state", e); // a pool checkout would fail anyway
 		}
+
+		reset.cancel(true); // stop sending commands to the browser about to be quit
+
+		quitDriver();
+
+		openBrowser();
 	}
 
 	/**
@@ -112,26 +198,40 @@ public class BrowserSession {
 	}
 
 	/**
-	 * Initialize the test execution and open the browser
+	 * Initialize the test execution and bind a browser from the {@link BrowserPool} to the current thread
 	 *
 	 * @param url
 	 *        the application URL
 	 */
 	private void openBrowser(String url) {
 
-		if (isBrowserActive()) {
-			return;
+		Browser browser = threadBrowser.get();
+
+		if (browser != null && BrowserPool.getInstance().recycleIfExpired(browser)) {
+			threadBrowser.remove();
 		}
 
-		LOG.info("Initializing...");
+		if (!isBrowserActive()) {
 
-		Settings settings = Settings.getInstance();
+			quitDriver(); // discard the unresponsive browser, if any
+
+			LOG.info("Initializing...");
+
+			threadBrowser.set(BrowserPool.getInstance().checkout(url));
+
+			LOG.info(" " + CHECK_MARK + " Open browser window");
+		}
 
-		Browser browser = new Browser(settings.getBrowserName(), url);
+		applyTestBudget();
+	}
 
-		this.browser = browser.open();
+	/**
+	 * Cap the page load and script timeouts of the current thread's browser to the time budget left to the running test (or restore the
+	 * defaults outside of a budgeted test). The cap is applied again before every navigation and script (see {@link TestEventListener})
+	 */
+	private void applyTestBudget() {
 
-		LOG.info(" " + CHECK_MARK + " Open browser window");
+		threadBrowser.get().applyTestBudget();
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,259 @@
+package automation.core.browser;
+
+import static automation.util.LoggerUtil.CHECK_MARK;
+import static automation.util.StringUtil.getUrlOrigin;
+import static automation.util.StringUtil.isNullOrEmpty;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.Options;
+import org.openqa.selenium.json.Json;
+
+import automation.core.TestContext;
+import automation.core.logging.MessageLogger;
+import automation.core.properties.Settings;
+
+/**
+ * Named snapshot of the browser state (URL, cookies, localStorage and sessionStorage), used to skip the UI navigation of expensive test
+ * preconditions.<br>
+ * Snapshots are saved in the <b>browser.state.folder</b> and can be restored, in the same run or in later runs, for
+ * <b>browser.state.ttl</b> minutes
+ *
+ * @author alexgabor
+ *
+ */
+public final class BrowserState {
+
+	private static final MessageLogger LOG = new MessageLogger(BrowserState.class);
+
+	private static final String CAPTURE_SCRIPT = "var dump = function (storage) {"
+			+ " var items = {}; for (var i = 0; i < storage.length; i++) { var key = storage.key(i); items[key] = storage.getItem(key); } return items; };"
+			+ " return { url: window.location.href, local: dump(window.localStorage), session: dump(window.sessionStorage) };";
+
+	private static final String RESTORE_SCRIPT = "var fill = function (storage, items) {"
+			+ " storage.clear(); for (var key in items) { storage.setItem(key, items[key]); } };"
+			+ " fill(window.localStorage, arguments[0]); fill(window.sessionStorage, arguments[1]);";
+
+	private static final Json JSON = new Json();
+
+	private static final Map<String, Map<String, Object>> snapshots = new ConcurrentHashMap<>();
+
+	private BrowserState() {
+	}
+
+	/**
+	 * Capture the current browser state under the given name and save it to disk
+	 *
+	 * @param name
+	 *        the snapshot name, e.g. <code>applyToCourseForm</code>
+	 */
+	public static void capture(String name) {
+
+		WebDriver driver = TestContext.getCurrentWebDriver();
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> state = new LinkedHashMap<>((Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT));
+
+		List<Map<String, Object>> cookies = new ArrayList<>();
+
+		for (Cookie cookie : driver.manage().getCookies()) {
+			cookies.add(toMap(cookie));
+		}
+
+		state.put("cookies", cookies);
+		state.put("capturedAt", System.currentTimeMillis());
+
+		snapshots.put(name, state);
+
+		try {
+
+			Path file = getFile(name);
+
+			Files.createDirectories(file.getParent());
+
+			Files.write(file, JSON.toJson(state).getBytes(StandardCharsets.UTF_8));
+
+		} catch (IOException e) {
+			LOG.warn("Browser state '" + name + "' was NOT saved to disk: " + e.getMessage());
+		}
+
+		LOG.info(" " + CHECK_MARK + " Captured browser state '" + name + "'");
+	}
+
+	/**
+	 * Restore the browser state captured under the given name, if it has not expired
+	 *
+	 * @param name
+	 *        the snapshot name
+	 * @return <code>true</code> if the state was restored; <code>false</code> if there is no valid snapshot, in which case the test should
+	 *         navigate through the UI (and may capture the state afterwards)
+	 */
+	@SuppressWarnings("unchecked")
+	public static boolean restore(String name) {
+
+		Map<String, Object> state = load(name);
+
+		if (state == null) {
+			return false;
+		}
+
+		WebDriver driver = TestContext.getCurrentWebDriver();
+		String url = (String) state.get("url");
+
+		driver.get(getUrlOrigin(url) + "/robots.txt"); // cookies and storage can only be set for the origin of the loaded page
+
+		Options options = driver.manage();
+
+		options.deleteAllCookies();
+
+		for (Map<String, Object> cookie : (List<Map<String, Object>>) state.get("cookies")) {
+
+			Cookie restoredCookie = toCookie(cookie);
+
+			if (!isExpired(restoredCookie)) {
+				options.addCookie(restoredCookie);
+			}
+		}
+
+		Object localStorage = state.getOrDefault("local", new HashMap<>());
+		Object sessionStorage = state.getOrDefault("session", new HashMap<>());
+
+		((JavascriptExecutor) driver).executeScript(RESTORE_SCRIPT, localStorage, sessionStorage);
+
+		driver.get(url);
+
+		LOG.info(" " + CHECK_MARK + " Restored browser state '" + name + "'");
+
+		return true;
+	}
+
+	/**
+	 * Get the snapshot from memory, or from disk if it was captured in another run
+	 *
+	 * @param name
+	 *        the snapshot name
+	 * @return the snapshot, or <code>null</code> if it does not exist or has expired
+	 */
+	private static Map<String, Object> load(String name) {
+
+		Map<String, Object> state = snapshots.get(name);
+		Path file = getFile(name);
+
+		if (state == null && Files.exists(file)) {
+
+			try {
+
+				String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+
+				state = JSON.toType(content, Json.MAP_TYPE);
+
+			} catch (IOException | RuntimeException e) {
+				LOG.warn("Browser state '" + name + "' could NOT be read: " + e.getMessage());
+			}
+		}
+
+		if (state == null) {
+			return null;
+		}
+
+		long age = System.currentTimeMillis() - ((Number) state.get("capturedAt")).longValue();
+		long ttl = MINUTES.toMillis(Settings.getInstance().getStateTtl());
+
+		if (age > ttl) {
+
+			snapshots.remove(name);
+
+			LOG.info("Browser state '" + name + "' expired");
+
+			return null;
+		}
+
+		snapshots.putIfAbsent(name, state);
+
+		return state;
+	}
+
+	/**
+	 * Get the file of the given snapshot, in the <b>browser.state.folder</b>
+	 *
+	 * @param name
+	 *        the snapshot name
+	 * @return
+	 */
+	private static Path getFile(String name) {
+
+		String fileName = name.replaceAll("[^A-Za-z0-9_.-]", "_") + ".json";
+
+		return Paths.get(Settings.getInstance().getStateFolder(), fileName);
+	}
+
+	/**
+	 * Convert the given {@link Cookie} to a JSON-friendly map
+	 *
+	 * @param cookie
+	 *        the {@link Cookie} to convert
+	 * @return
+	 */
+	private static Map<String, Object> toMap(Cookie cookie) {
+
+		Map<String, Object> map = new LinkedHashMap<>();
+
+		map.put("name", cookie.getName());
+		map.put("value", cookie.getValue());
+		map.put("domain", cookie.getDomain() == null ? "" : cookie.getDomain());
+		map.put("path", cookie.getPath());
+		map.put("expiry", cookie.getExpiry() == null ? null : cookie.getExpiry().getTime());
+		map.put("secure", cookie.isSecure());
+		map.put("httpOnly", cookie.isHttpOnly());
+
+		return map;
+	}
+
+	/**
+	 * Convert a map created by {@link #toMap(Cookie)} back to a {@link Cookie}
+	 *
+	 * @param map
+	 *        the cookie map
+	 * @return
+	 */
+	private static Cookie toCookie(Map<String, Object> map) {
+
+		Object expiry = map.get("expiry");
+		String domain = (String) map.get("domain");
+
+		return new Cookie.Builder((String) map.get("name"), (String) map.get("value"))
+				.domain(isNullOrEmpty(domain) ? null : domain)
+				.path((String) map.get("path"))
+				.expiresOn(expiry == null ? null : new Date(((Number) expiry).longValue()))
+				.isSecure(Boolean.TRUE.equals(map.get("secure")))
+				.isHttpOnly(Boolean.TRUE.equals(map.get("httpOnly")))
+				.build();
+	}
+
+	/**
+	 * Tells if the given {@link Cookie} has expired since it was captured
+	 *
+	 * @param cookie
+	 *        the {@link Cookie} to check
+	 * @return
+	 */
+	private static boolean isExpired(Cookie cookie) {
+		return cookie.getExpiry() != null && cookie.getExpiry().before(new Date());
+	}
+
+}
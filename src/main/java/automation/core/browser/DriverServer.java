@@ -0,0 +1,314 @@
+package automation.core.browser;
+
+import static automation.util.LoggerUtil.CHECK_MARK;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecuteResultHandler;
+import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.ExecuteWatchdog;
+import org.apache.commons.exec.PumpStreamHandler;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.net.PortProber;
+import org.openqa.selenium.net.UrlChecker;
+
+import automation.core.logging.MessageLogger;
+
+/**
+ * Long-lived chromedriver/geckodriver process, started through commons-exec, to which the browser sessions attach over HTTP.<br>
+ * A single chromedriver serves all Chrome sessions. Geckodriver only accepts one session at a time, so idle geckodriver processes are
+ * reused by the next Firefox session instead of starting a new process for each one
+ *
+ * @author alexgabor
+ *
+ */
+public final class DriverServer {
+
+	private static final MessageLogger LOG = new MessageLogger(DriverServer.class);
+
+	private static final Map<BrowserName, Deque<DriverServer>> idleServers = new EnumMap<>(BrowserName.class);
+	private static final Map<BrowserName, CompletableFuture<DriverServer>> sharedServers = new EnumMap<>(BrowserName.class);
+	private static final List<DriverServer> allServers = new ArrayList<>();
+
+	private final BrowserName browserName;
+	private final URL url;
+	private final ExecuteWatchdog watchdog;
+
+	private DriverServer(BrowserName browserName, URL url, ExecuteWatchdog watchdog) {
+		this.browserName = browserName;
+		this.url = url;
+		this.watchdog = watchdog;
+	}
+
+	/**
+	 * Get a running driver server for the given browser, starting one if none is available.<br>
+	 * The server is started outside of the class lock, so that the other sessions are not blocked while it boots; the sessions needing the
+	 * same shared server wait for the one being started
+	 *
+	 * @param browserName
+	 *        the {@link BrowserName} (Chrome or Firefox)
+	 * @return
+	 */
+	public static DriverServer acquire(BrowserName browserName) {
+
+		if (!isMultiSession(browserName)) {
+
+			DriverServer server = pollIdle(browserName);
+
+			return server != null ? server : register(start(browserName));
+		}
+
+		CompletableFuture<DriverServer> starting = new CompletableFuture<>();
+		CompletableFuture<DriverServer> shared = reserveShared(browserName, starting);
+
+		if (shared == starting) {
+
+			try {
+
+				starting.complete(register(start(browserName)));
+
+			} catch (RuntimeException e) {
+
+				starting.completeExceptionally(e);
+
+				throw e;
+			}
+		}
+
+		try {
+
+			return shared.join();
+
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+
+	/**
+	 * Give back a driver server once the session attached to it has quit
+	 *
+	 * @param server
+	 *        the {@link DriverServer} obtained through {@link #acquire(BrowserName)}
+	 */
+	public static synchronized void release(DriverServer server) {
+
+		if (server == null || server.isMultiSession() || !allServers.contains(server)) {
+			return;
+		}
+
+		idleServers.computeIfAbsent(server.browserName, name -> new ArrayDeque<>()).offerFirst(server);
+	}
+
+	/**
+	 * Stop a single session driver server whose session could not be quit properly, instead of giving it to the next session
+	 *
+	 * @param server
+	 *        the {@link DriverServer} obtained through {@link #acquire(BrowserName)}
+	 */
+	public static synchronized void discard(DriverServer server) {
+
+		if (server == null || server.isMultiSession() || !allServers.remove(server)) {
+			return;
+		}
+
+		server.watchdog.destroyProcess();
+	}
+
+	/**
+	 * Stop all the driver server processes
+	 */
+	public static synchronized void stopAll() {
+
+		for (DriverServer server : allServers) {
+			server.watchdog.destroyProcess();
+		}
+
+		allServers.clear();
+		idleServers.clear();
+		sharedServers.clear();
+	}
+
+	/**
+	 * Take an idle single session driver server which is still running
+	 *
+	 * @param browserName
+	 *        the {@link BrowserName}
+	 * @return <code>null</code> if there is none
+	 */
+	private static synchronized DriverServer pollIdle(BrowserName browserName) {
+
+		Deque<DriverServer> idle = idleServers.computeIfAbsent(browserName, name -> new ArrayDeque<>());
+
+		DriverServer server = idle.pollFirst();
+
+		while (server != null && !server.isRunning()) {
+
+			allServers.remove(server);
+
+			server = idle.pollFirst();
+		}
+
+		return server;
+	}
+
+	/**
+	 * Get the shared driver server of the given browser, running or being started, or reserve its start to the caller if there is none
+	 *
+	 * @param browserName
+	 *        the {@link BrowserName}
+	 * @param starting
+	 *        the server the caller will start, if needed
+	 * @return <code>starting</code> if the caller has to start the server
+	 */
+	private static synchronized CompletableFuture<DriverServer> reserveShared(BrowserName browserName, CompletableFuture<DriverServer> starting) {
+
+		CompletableFuture<DriverServer> shared = sharedServers.get(browserName);
+
+		if (shared != null && shared.isDone() && !shared.isCompletedExceptionally() && !shared.join().isRunning()) {
+
+			allServers.remove(shared.join());
+
+			shared = null;
+		}
+
+		if (shared == null || shared.isCompletedExceptionally()) {
+
+			sharedServers.put(browserName, starting);
+
+			return starting;
+		}
+
+		return shared;
+	}
+
+	/**
+	 * Keep track of a started driver server, to stop it in the end
+	 *
+	 * @param server
+	 *        the started {@link DriverServer}
+	 * @return the server
+	 */
+	private static synchronized DriverServer register(DriverServer server) {
+
+		allServers.add(server);
+
+		return server;
+	}
+
+	/**
+	 * Get the URL the sessions use to reach this driver server
+	 *
+	 * @return
+	 */
+	public URL getUrl() {
+		return url;
+	}
+
+	/**
+	 * Tells if the driver process is still alive
+	 *
+	 * @return
+	 */
+	private boolean isRunning() {
+		return watchdog.isWatching();
+	}
+
+	/**
+	 * Tells if this driver server can handle several sessions at the same time
+	 *
+	 * @return
+	 */
+	private boolean isMultiSession() {
+		return isMultiSession(browserName);
+	}
+
+	/**
+	 * Tells if the driver server of the given browser can handle several sessions at the same time
+	 *
+	 * @param browserName
+	 *        the {@link BrowserName}
+	 * @return
+	 */
+	private static boolean isMultiSession(BrowserName browserName) {
+		return browserName != BrowserName.FIREFOX;
+	}
+
+	/**
+	 * Start the driver executable of the given browser on a free port and wait for it to accept requests
+	 *
+	 * @param browserName
+	 *        the {@link BrowserName} (Chrome or Firefox)
+	 * @return
+	 */
+	private static DriverServer start(BrowserName browserName) {
+
+		File executable = getExecutable(browserName);
+		int port = PortProber.findFreePort();
+
+		CommandLine commandLine = new CommandLine(executable);
+
+		commandLine.addArgument("--port=" + port);
+
+		ExecuteWatchdog watchdog = new ExecuteWatchdog(ExecuteWatchdog.INFINITE_TIMEOUT);
+		DefaultExecutor executor = new DefaultExecutor();
+
+		executor.setWatchdog(watchdog);
+		executor.setStreamHandler(new PumpStreamHandler(NULL_OUTPUT_STREAM, NULL_OUTPUT_STREAM));
+
+		try {
+
+			URL url = new URL("http://localhost:" + port);
+
+			executor.execute(commandLine, new DefaultExecuteResultHandler());
+
+			new UrlChecker().waitUntilAvailable(20, SECONDS, new URL(url, "/status"));
+
+			DriverServer server = new DriverServer(browserName, url, watchdog);
+
+			LOG.info(" " + CHECK_MARK + " Started " + executable.getName() + " on port " + port);
+
+			return server;
+
+		} catch (IOException | UrlChecker.TimeoutException e) {
+
+			watchdog.destroyProcess();
+
+			throw new WebDriverException("Could not start " + executable.getAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Get the driver executable of the given browser, from the 'lib' folder
+	 *
+	 * @param browserName
+	 *        the {@link BrowserName} (Chrome or Firefox)
+	 * @return
+	 */
+	private static File getExecutable(BrowserName browserName) {
+
+		switch (browserName) {
+		case CHROME:
+			return new File("./lib/chromedriver");
+
+		case FIREFOX:
+			return new File("./lib/geckodriver");
+
+		default:
+			throw new IllegalArgumentException("No driver server for browser: " + browserName);
+		}
+	}
+
+}
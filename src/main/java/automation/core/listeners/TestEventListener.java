@@ -8,6 +8,8 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.events.WebDriverEventListener;
 
+import automation.core.DomEpoch;
+import automation.core.TestContext;
 import automation.core.logging.MessageLogger;
 
 /**
@@ -81,46 +83,55 @@ public class TestEventListener implements WebDriverEventListener {
 	@Override
 	public void beforeNavigateBack(WebDriver driver) {
 
+		applyTestBudget();
 	}
 
 	@Override
 	public void afterNavigateBack(WebDriver driver) {
 
+		DomEpoch.advance();
 	}
 
 	@Override
 	public void beforeNavigateForward(WebDriver driver) {
 
+		applyTestBudget();
 	}
 
 	@Override
 	public void afterNavigateForward(WebDriver driver) {
 
+		DomEpoch.advance();
 	}
 
 	@Override
 	public void beforeNavigateTo(String url, WebDriver driver) {
 
+		applyTestBudget();
 	}
 
 	@Override
 	public void afterNavigateTo(String url, WebDriver driver) {
 
+		DomEpoch.advance();
 	}
 
 	@Override
 	public void beforeNavigateRefresh(WebDriver driver) {
 
+		applyTestBudget();
 	}
 
 	@Override
 	public void afterNavigateRefresh(WebDriver driver) {
 
+		DomEpoch.advance();
 	}
 
 	@Override
 	public void beforeScript(String script, WebDriver driver) {
 
+		applyTestBudget();
 	}
 
 	@Override
@@ -156,6 +167,7 @@ public class TestEventListener implements WebDriverEventListener {
 	@Override
 	public void afterSwitchToWindow(String windowName, WebDriver driver) {
 
+		DomEpoch.advance();
 	}
 
 	@Override
@@ -168,6 +180,19 @@ public class TestEventListener implements WebDriverEventListener {
 
 	}
 
+	/**
+	 * Cap the page load and script timeouts to the time budget left to the running test, before a navigation or a script (which includes
+	 * the in-page waits)
+	 */
+	private static void applyTestBudget() {
+
+		TestContext context = TestContext.current();
+
+		if (context != null && context.getBrowser() != null) {
+			context.getBrowser().applyTestBudget();
+		}
+	}
+
 	/**
 	 * Returns a meaningful identifier of the given {@link WebElement} for logging purpose
 	 *
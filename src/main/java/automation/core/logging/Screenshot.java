@@ -1,7 +1,6 @@
 package automation.core.logging;
 
 import static automation.util.LoggerUtil.CHECK_MARK;
-import static automation.util.LoggerUtil.HTML_APPENDER_NAME;
 import static automation.util.LoggerUtil.LOG_FILENAME_PREFIX;
 import static automation.util.LoggerUtil.LOG_FOLDER;
 import static automation.util.StringUtil.generateFileNameWithTimestamp;
@@ -14,17 +13,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Map;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.core.Appender;
-import org.apache.logging.log4j.core.LoggerContext;
-import org.apache.logging.log4j.core.appender.FileAppender;
-import org.apache.logging.log4j.core.config.Configuration;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import automation.core.browser.BrowserSession;
+import automation.core.TestContext;
 
 /**
  * Class in charge with taking screenshots
@@ -41,7 +34,7 @@ public final class Screenshot {
 	 */
 	public static void takeScreenshot() {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = TestContext.getCurrentWebDriver();
 
 		if (driver == null) {
 			return;
@@ -86,32 +79,19 @@ public final class Screenshot {
 	}
 
 	/**
-	 * Get the test name from Log4j {@link FileAppender}
+	 * Get the test name from the {@link TestContext} of the current thread
 	 *
 	 * @return the current test name
 	 */
 	private static String getTestName() {
-	
-		long threadID = currentThread().getId();
-	
-		final LoggerContext ctx = (LoggerContext) LogManager.getContext(false);
-		final Configuration config = ctx.getConfiguration();
-		Map<String, Appender> appenders = config.getAppenders();
-	
-		FileAppender fileApender = (FileAppender) appenders.get(HTML_APPENDER_NAME + threadID);
-	
-		if (fileApender == null) {
+
+		TestContext context = TestContext.current();
+
+		if (context == null) {
 			return "Unknown (possibly test setup)";
 		}
-	
-		String fileName = fileApender.getFileName();
-
-		int beginIndex = fileName.indexOf("_") + 1;
-		int endIndex = fileName.lastIndexOf("_");
-	
-		String testName = fileName.substring(beginIndex, endIndex);
-	
-		return testName;
+
+		return context.getTestName();
 	}
 
 }
@@ -8,8 +8,14 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+
+import automation.core.PollingStrategy;
 import automation.core.browser.BrowserName;
 import automation.core.logging.MessageLogger;
 
@@ -25,8 +31,9 @@ public class Settings extends Properties implements TestProperties {
 
 	private static final MessageLogger LOG = new MessageLogger(Settings.class);
 	private static final String PROPERTIES_FILE = "test.properties";
+	private static final String DEFAULT_VIEWPORT = "1920x1080";
 
-	private static Settings instance = null;
+	private static volatile Settings instance = null;
 
 	private Settings() {
 
@@ -44,12 +51,14 @@ public class Settings extends Properties implements TestProperties {
 
 			stream = new FileInputStream(PROPERTIES_FILE);
 
-			instance = new Settings();
+			Settings settings = new Settings(); // fully loaded before being published to the other test threads
 
-			instance.load(stream);
+			settings.load(stream);
 
 			stream.close();
 
+			instance = settings;
+
 		} catch (Exception e) {
 
 			LOG.error("Exception thrown when reading the Settings file: ");
@@ -85,6 +94,300 @@ public class Settings extends Properties implements TestProperties {
 		return BrowserName.valueOf(this.getProperty("browser.name"));
 	}
 
+	/**
+	 * Property <b>browser.pool.min</b> (default 0)
+	 */
+	@Override
+	public int getPoolMinSize() {
+		return getIntProperty("browser.pool.min", 0);
+	}
+
+	/**
+	 * Property <b>browser.pool.max</b> (default 1)
+	 */
+	@Override
+	public int getPoolMaxSize() {
+		return getIntProperty("browser.pool.max", 1);
+	}
+
+	/**
+	 * Property <b>browser.pool.checkout.timeout</b> (default 300 seconds)
+	 */
+	@Override
+	public int getPoolCheckoutTimeout() {
+		return getIntProperty("browser.pool.checkout.timeout", 300);
+	}
+
+	/**
+	 * Property <b>browser.prewarm</b> (default 0, pre-warming disabled)
+	 */
+	@Override
+	public int getPrewarmCount() {
+		return getIntProperty("browser.prewarm", 0);
+	}
+
+	/**
+	 * Property <b>browser.reuse</b> (default false)
+	 */
+	@Override
+	public boolean isBrowserReuse() {
+		return Boolean.parseBoolean(this.getProperty("browser.reuse", "false").trim());
+	}
+
+	/**
+	 * Property <b>browser.reset.timeout</b> (default 10 seconds)
+	 */
+	@Override
+	public int getResetTimeout() {
+		return getIntProperty("browser.reset.timeout", 10);
+	}
+
+	/**
+	 * Property <b>browser.headless</b> (default false)
+	 */
+	@Override
+	public boolean isHeadless() {
+		return Boolean.parseBoolean(this.getProperty("browser.headless", "false").trim());
+	}
+
+	/**
+	 * Property <b>browser.viewport</b>, in the <code>widthxheight</code> format (default 1920x1080)
+	 */
+	@Override
+	public Dimension getViewportSize() {
+
+		String value = this.getProperty("browser.viewport", DEFAULT_VIEWPORT).trim();
+		String[] size = value.toLowerCase().split("x");
+
+		try {
+
+			return new Dimension(Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()));
+
+		} catch (RuntimeException e) {
+
+			LOG.warn("Invalid value '" + value + "' for property 'browser.viewport', using " + DEFAULT_VIEWPORT);
+
+			return new Dimension(1920, 1080);
+		}
+	}
+
+	/**
+	 * Property <b>browser.health.interval</b> (default 30 seconds)
+	 */
+	@Override
+	public int getHealthCheckInterval() {
+		return getIntProperty("browser.health.interval", 30);
+	}
+
+	/**
+	 * Property <b>browser.recycle.age</b> (default 0 minutes, disabled)
+	 */
+	@Override
+	public int getRecycleMaxAge() {
+		return getIntProperty("browser.recycle.age", 0);
+	}
+
+	/**
+	 * Property <b>browser.recycle.tests</b> (default 0, disabled)
+	 */
+	@Override
+	public int getRecycleMaxTests() {
+		return getIntProperty("browser.recycle.tests", 0);
+	}
+
+	/**
+	 * Property <b>browser.recycle.rss</b> (default 0 MB, disabled)
+	 */
+	@Override
+	public int getRecycleMaxRss() {
+		return getIntProperty("browser.recycle.rss", 0);
+	}
+
+	/**
+	 * Property <b>browser.cookies</b>, as <code>name=value</code> pairs separated by <code>;</code> (default none).<br>
+	 * E.g. <code>cookie_notice_accepted=true</code> hides the cookie consent banner of the SIIT website
+	 */
+	@Override
+	public List<Cookie> getSeedCookies() {
+
+		String value = this.getProperty("browser.cookies", "");
+		List<Cookie> cookies = new ArrayList<>();
+
+		for (String pair : value.split(";")) {
+
+			int separatorIndex = pair.indexOf('=');
+
+			if (separatorIndex <= 0) {
+				continue;
+			}
+
+			String name = pair.substring(0, separatorIndex).trim();
+			String cookieValue = pair.substring(separatorIndex + 1).trim();
+
+			cookies.add(new Cookie(name, cookieValue, "/"));
+		}
+
+		return cookies;
+	}
+
+	/**
+	 * Property <b>browser.state.folder</b> (default "BrowserStates")
+	 */
+	@Override
+	public String getStateFolder() {
+		return this.getProperty("browser.state.folder", "BrowserStates").trim();
+	}
+
+	/**
+	 * Property <b>browser.state.ttl</b> (default 60 minutes)
+	 */
+	@Override
+	public int getStateTtl() {
+		return getIntProperty("browser.state.ttl", 60);
+	}
+
+	/**
+	 * Property <b>test.parallel.threads</b> (default <b>browser.pool.max</b>)
+	 */
+	@Override
+	public int getParallelThreads() {
+		return getIntProperty("test.parallel.threads", getPoolMaxSize());
+	}
+
+	/**
+	 * Property <b>wait.polling</b>: <code>fixed</code>, <code>exponential</code>, <code>jittered</code> or <code>history</code> (default
+	 * fixed)
+	 */
+	@Override
+	public PollingStrategy getWaitPolling() {
+
+		String value = this.getProperty("wait.polling", "fixed");
+		PollingStrategy strategy = PollingStrategy.forName(value);
+
+		if (strategy == null) {
+
+			LOG.warn("Invalid value '" + value + "' for property 'wait.polling', using fixed");
+
+			return PollingStrategy.FIXED;
+		}
+
+		return strategy;
+	}
+
+	/**
+	 * Property <b>test.budget</b> (default 0 seconds, no limit)
+	 */
+	@Override
+	public int getTestBudget() {
+		return getIntProperty("test.budget", 0);
+	}
+
+	/**
+	 * Property <b>wait.learned</b> (default false)
+	 */
+	@Override
+	public boolean isLearnedTimeouts() {
+		return Boolean.parseBoolean(this.getProperty("wait.learned", "false").trim());
+	}
+
+	/**
+	 * Property <b>wait.learned.factor</b> (default 3)
+	 */
+	@Override
+	public double getLearnedTimeoutFactor() {
+		return getDoubleProperty("wait.learned.factor", 3);
+	}
+
+	/**
+	 * Property <b>wait.learned.min</b> (default 2 seconds)
+	 */
+	@Override
+	public int getLearnedTimeoutMin() {
+		return getIntProperty("wait.learned.min", 2);
+	}
+
+	/**
+	 * Property <b>wait.learned.max</b> (default 60 seconds)
+	 */
+	@Override
+	public int getLearnedTimeoutMax() {
+		return getIntProperty("wait.learned.max", 60);
+	}
+
+	/**
+	 * Property <b>wait.history.file</b> (default "build/WaitHistory.tsv")
+	 */
+	@Override
+	public String getWaitHistoryFile() {
+		return this.getProperty("wait.history.file", "build/WaitHistory.tsv").trim();
+	}
+
+	/**
+	 * Property <b>browser.header.selector</b> (default "#header", the SIIT website Main Menu bar)
+	 */
+	@Override
+	public String getHeaderSelector() {
+		return this.getProperty("browser.header.selector", "#header").trim();
+	}
+
+	/**
+	 * Get the integer value of the given property
+	 *
+	 * @param key
+	 *        the property name
+	 * @param defaultValue
+	 *        the value returned when the property is missing or is not a valid integer
+	 * @return
+	 */
+	private int getIntProperty(String key, int defaultValue) {
+
+		String value = this.getProperty(key);
+
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+
+		try {
+
+			return Integer.parseInt(value.trim());
+
+		} catch (NumberFormatException e) {
+
+			LOG.warn("Invalid value '" + value + "' for property '" + key + "', using " + defaultValue);
+
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Get the decimal value of the given property
+	 *
+	 * @param key
+	 *        the property name
+	 * @param defaultValue
+	 *        the value returned when the property is missing or is not a valid number
+	 * @return
+	 */
+	private double getDoubleProperty(String key, double defaultValue) {
+
+		String value = this.getProperty(key);
+
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+
+		try {
+
+			return Double.parseDouble(value.trim());
+
+		} catch (NumberFormatException e) {
+
+			LOG.warn("Invalid value '" + value + "' for property '" + key + "', using " + defaultValue);
+
+			return defaultValue;
+		}
+	}
+
 	/**
 	 * Stores the given property value to the settings file
 	 *
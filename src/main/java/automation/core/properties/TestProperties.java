@@ -1,5 +1,11 @@
 package automation.core.properties;
 
+import java.util.List;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+
+import automation.core.PollingStrategy;
 import automation.core.browser.BrowserName;
 
 /**
@@ -41,4 +47,173 @@ public interface TestProperties {
 	 * @throws Exception
 	 */
 	void setBrowserName(BrowserName browserName) throws Exception;
+
+	/**
+	 * Get the number of browsers opened eagerly when the browser pool starts
+	 *
+	 * @return
+	 */
+	int getPoolMinSize();
+
+	/**
+	 * Get the maximum number of browsers that can be open at the same time
+	 *
+	 * @return
+	 */
+	int getPoolMaxSize();
+
+	/**
+	 * Get the number of seconds a test waits for a free browser before failing
+	 *
+	 * @return
+	 */
+	int getPoolCheckoutTimeout();
+
+	/**
+	 * Get the number of browsers kept warming up in the background, ready to be checked out
+	 *
+	 * @return
+	 */
+	int getPrewarmCount();
+
+	/**
+	 * Tells if the browser is kept open across test classes and reset between tests, instead of being quit after each class
+	 *
+	 * @return
+	 */
+	boolean isBrowserReuse();
+
+	/**
+	 * Get the number of seconds a browser state reset may take before the browser is restarted instead
+	 *
+	 * @return
+	 */
+	int getResetTimeout();
+
+	/**
+	 * Tells if the browsers are launched without a display
+	 *
+	 * @return
+	 */
+	boolean isHeadless();
+
+	/**
+	 * Get the browser viewport size used in headless mode, instead of maximizing the window
+	 *
+	 * @return
+	 */
+	Dimension getViewportSize();
+
+	/**
+	 * Get the number of seconds between two browser health checks (liveness is cached in between)
+	 *
+	 * @return
+	 */
+	int getHealthCheckInterval();
+
+	/**
+	 * Get the number of minutes after which a browser is recycled, 0 to disable
+	 *
+	 * @return
+	 */
+	int getRecycleMaxAge();
+
+	/**
+	 * Get the number of tests after which a browser is recycled, 0 to disable
+	 *
+	 * @return
+	 */
+	int getRecycleMaxTests();
+
+	/**
+	 * Get the resident memory (MB) of the browser processes above which a browser is recycled, 0 to disable
+	 *
+	 * @return
+	 */
+	int getRecycleMaxRss();
+
+	/**
+	 * Get the cookies injected in every new browser session, before the start URL is loaded
+	 *
+	 * @return
+	 */
+	List<Cookie> getSeedCookies();
+
+	/**
+	 * Get the folder where the browser state snapshots are saved
+	 *
+	 * @return
+	 */
+	String getStateFolder();
+
+	/**
+	 * Get the number of minutes a browser state snapshot can be restored after it was captured
+	 *
+	 * @return
+	 */
+	int getStateTtl();
+
+	/**
+	 * Get the number of worker threads running the tests in parallel (see the parallel runners)
+	 *
+	 * @return
+	 */
+	int getParallelThreads();
+
+	/**
+	 * Get the default {@link PollingStrategy} of the waits
+	 *
+	 * @return
+	 */
+	PollingStrategy getWaitPolling();
+
+	/**
+	 * Get the number of seconds a test may run before all its waits and page loads fail right away
+	 *
+	 * @return
+	 */
+	int getTestBudget();
+
+	/**
+	 * Tells if the waits use the timeouts learned from their history (see {@link automation.core.WaitHistory}) instead of the timeouts
+	 * given by the page objects
+	 *
+	 * @return
+	 */
+	boolean isLearnedTimeouts();
+
+	/**
+	 * Get the factor applied to the p99 duration of a wait to obtain its learned timeout (e.g. 1.5)
+	 *
+	 * @return
+	 */
+	double getLearnedTimeoutFactor();
+
+	/**
+	 * Get the minimum learned timeout, in seconds
+	 *
+	 * @return
+	 */
+	int getLearnedTimeoutMin();
+
+	/**
+	 * Get the maximum learned timeout, in seconds
+	 *
+	 * @return
+	 */
+	int getLearnedTimeoutMax();
+
+	/**
+	 * Get the path of the file keeping the wait history across runs (see {@link automation.core.WaitHistory})
+	 *
+	 * @return
+	 */
+	String getWaitHistoryFile();
+
+	/**
+	 * Get the CSS selector of the sticky header overlay the scrolls keep the elements away from
+	 *
+	 * @return
+	 */
+	String getHeaderSelector();
 }
@@ -0,0 +1,22 @@
+package automation.core.runners;
+
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.InitializationError;
+
+/**
+ * JUnit runner that executes the test methods of a class in parallel, on the shared pool of <b>test.parallel.threads</b> workers.<br>
+ * Usage: annotate a {@link automation.core.SeleneseTest} subclass with <code>@RunWith(ParallelRunner.class)</code>
+ *
+ * @author alexgabor
+ *
+ */
+public class ParallelRunner extends BlockJUnit4ClassRunner {
+
+	public ParallelRunner(Class<?> klass) throws InitializationError {
+
+		super(klass);
+
+		setScheduler(new TestScheduler(TestWorkers.getMethodWorkers(), true));
+	}
+
+}
@@ -0,0 +1,33 @@
+package automation.core.runners;
+
+import org.junit.runner.Runner;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.Suite;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * JUnit suite that executes its test classes in parallel, and the methods of each class in parallel as well, on the shared pool of
+ * <b>test.parallel.threads</b> workers.<br>
+ * Usage: <code>@RunWith(ParallelSuite.class)</code> and <code>@SuiteClasses({ ... })</code> on an empty class
+ *
+ * @author alexgabor
+ *
+ */
+public class ParallelSuite extends Suite {
+
+	public ParallelSuite(Class<?> klass, RunnerBuilder builder) throws InitializationError {
+
+		super(klass, builder);
+
+		for (Runner runner : getChildren()) {
+
+			if (runner instanceof ParentRunner && !(runner instanceof Suite)) {
+				((ParentRunner<?>) runner).setScheduler(new TestScheduler(TestWorkers.getMethodWorkers(), true));
+			}
+		}
+
+		setScheduler(new TestScheduler(TestWorkers.getClassWorkers(), false));
+	}
+
+}
@@ -0,0 +1,92 @@
+package automation.core.runners;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.runners.model.RunnerScheduler;
+
+import automation.core.browser.BrowserSession;
+
+/**
+ * {@link RunnerScheduler} that runs the children of a JUnit runner on a thread pool and waits for all of them to finish
+ *
+ * @author alexgabor
+ *
+ */
+class TestScheduler implements RunnerScheduler {
+
+	private final ExecutorService executor;
+	private final boolean isMethodLevel;
+	private final List<Future<?>> futures = new ArrayList<>();
+
+	/**
+	 * @param executor
+	 *        the pool running the children
+	 * @param isMethodLevel
+	 *        <code>true</code> if the children are test methods, which give back their browser when they end
+	 */
+	TestScheduler(ExecutorService executor, boolean isMethodLevel) {
+		this.executor = executor;
+		this.isMethodLevel = isMethodLevel;
+	}
+
+	@Override
+	public synchronized void schedule(Runnable childStatement) {
+
+		if (!isMethodLevel) {
+
+			futures.add(executor.submit(childStatement));
+
+			return;
+		}
+
+		futures.add(executor.submit(() -> {
+
+			try {
+				childStatement.run();
+			} finally {
+				freeBrowser();
+			}
+		}));
+	}
+
+	@Override
+	public void finished() {
+
+		List<Future<?>> scheduled;
+
+		synchronized (this) {
+			scheduled = new ArrayList<>(futures);
+		}
+
+		for (Future<?> future : scheduled) {
+
+			try {
+
+				future.get();
+
+			} catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+
+				return;
+
+			} catch (ExecutionException e) {
+				// failures are already reported to the RunNotifier by the child statement
+			}
+		}
+	}
+
+	/**
+	 * Unbind the browser from the worker thread, since the next test on this worker may belong to another class.<br>
+	 * The browser always goes back to the pool, which quits it when it is dead or crosses a recycling threshold (it gets reset by the next
+	 * test when browsers are reused); quitting it here would start a new browser for every test method
+	 */
+	private static void freeBrowser() {
+		BrowserSession.getInstance().releaseBrowser();
+	}
+
+}
@@ -0,0 +1,78 @@
+package automation.core.runners;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import automation.core.properties.Settings;
+
+/**
+ * Thread pools shared by the parallel runners.<br>
+ * Test methods run on a fixed pool of <b>test.parallel.threads</b> workers (one browser per worker), while test classes run on a separate
+ * pool, since a class only waits for its methods to finish
+ *
+ * @author alexgabor
+ *
+ */
+final class TestWorkers {
+
+	private static ExecutorService methodWorkers = null;
+	private static ExecutorService classWorkers = null;
+
+	private TestWorkers() {
+	}
+
+	/**
+	 * Get the pool running the test methods
+	 *
+	 * @return
+	 */
+	static synchronized ExecutorService getMethodWorkers() {
+
+		if (methodWorkers == null) {
+
+			int threads = Math.max(1, Settings.getInstance().getParallelThreads());
+
+			methodWorkers = Executors.newFixedThreadPool(threads, newThreadFactory("test-worker-"));
+		}
+
+		return methodWorkers;
+	}
+
+	/**
+	 * Get the pool running the test classes
+	 *
+	 * @return
+	 */
+	static synchronized ExecutorService getClassWorkers() {
+
+		if (classWorkers == null) {
+			classWorkers = Executors.newCachedThreadPool(newThreadFactory("test-class-"));
+		}
+
+		return classWorkers;
+	}
+
+	/**
+	 * Create a factory of daemon threads with numbered names
+	 *
+	 * @param prefix
+	 *        the thread name prefix
+	 * @return
+	 */
+	private static ThreadFactory newThreadFactory(String prefix) {
+
+		AtomicInteger counter = new AtomicInteger();
+
+		return runnable -> {
+
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+
+			thread.setDaemon(true);
+
+			return thread;
+		};
+	}
+
+}
@@ -7,10 +7,15 @@ import static automation.util.LoggerUtil.logThrowableCause;
 import static automation.util.LoggerUtil.removeAndStopTestLogger;
 import static automation.util.LoggerUtil.renameLogFile;
 
+import java.util.Map;
+
 import org.junit.rules.TestWatcher;
 import org.junit.runner.Description;
 import org.openqa.selenium.WebDriver;
 
+import automation.core.TestContext;
+import automation.core.browser.Browser;
+import automation.core.browser.BrowserSession;
 import automation.core.logging.MessageLogger;
 
 /**
@@ -26,6 +31,8 @@ public class OutcomeTestWatcher extends TestWatcher {
 	@Override
 	protected void failed(Throwable e, Description desc) {
 
+		invalidateBrowserHealth(); // the failure may have been caused by a crashed browser
+
 		takeScreenshot();
 
 		LOG.error(" " + X_MARK + " Assert failed: ");
@@ -48,11 +55,51 @@ public class OutcomeTestWatcher extends TestWatcher {
 	@Override
 	protected void finished(Description desc) {
 
+		logTimings();
+
 		LOG.info("Quitting the driver...");
 
 		removeAndStopTestLogger(); // needed after renaming the log file (logs will no longer be written)
 
+		TestContext.end();
+
 		LOG.info("Done.");
 	}
 
+	/**
+	 * Force a real liveness check of the current browser before it is used again
+	 */
+	private static void invalidateBrowserHealth() {
+
+		Browser browser = BrowserSession.getInstance().getBrowser();
+
+		if (browser != null && browser.getHealth() != null) {
+			browser.getHealth().invalidate();
+		}
+	}
+
+	/**
+	 * Log the durations measured by the {@link TestContext} timers, and the metrics, of the current test
+	 */
+	private static void logTimings() {
+
+		TestContext context = TestContext.current();
+
+		if (context == null) {
+			return;
+		}
+
+		StringBuilder timings = new StringBuilder("Duration: " + context.getElapsedMillis() + " ms");
+
+		for (Map.Entry<String, Long> timing : context.getTimings().entrySet()) {
+			timings.append(", ").append(timing.getKey()).append(": ").append(timing.getValue()).append(" ms");
+		}
+
+		for (Map.Entry<String, Long> metric : context.getMetrics().entrySet()) {
+			timings.append(", ").append(metric.getKey()).append(": ").append(metric.getValue());
+		}
+
+		LOG.info(timings.toString());
+	}
+
 }
@@ -1,22 +1,133 @@
 package automation.pom;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.WebElement;
+
+import automation.core.DomCondition;
+import automation.core.DomEpoch;
+import automation.core.PageReady;
+import automation.core.TestContext;
+import automation.core.WaitElement;
+import automation.core.logging.MessageLogger;
+import automation.util.JsLibrary;
 
 /**
- * Base class for all page objects which initializes the {@link WebDriver}
+ * Base class for all page objects which initializes the {@link WebDriver}.<br>
+ * The <code>@FindBy</code> elements are located once and reused until the next navigation (see {@link LazyElement}). They are assigned by
+ * the {@link PageBinder} generated at compile time when the fields are not private, otherwise by the <code>PageFactory</code>
  * 
  * @author alexgabor
  *
  */
 public abstract class AbstractPageObject {
 
+	private static final MessageLogger LOG = new MessageLogger(AbstractPageObject.class);
+
+	private static final int PAGE_READY_TIMEOUT = 30;
+
 	protected WebDriver driver;
 
+	private final ElementBindings bindings;
+
+	/**
+	 * Create the page object on the {@link WebDriver} of the current test
+	 */
+	public AbstractPageObject() {
+		this(TestContext.getCurrentWebDriver());
+	}
+
 	public AbstractPageObject(WebDriver driver) {
 
 		this.driver = driver;
+		this.bindings = PageBinders.bind(this, driver);
 
-		PageFactory.initElements(driver, this);
+		if (getClass().isAnnotationPresent(ResolveEagerly.class)) {
+			resolveElements();
+		}
     }
+
+	/**
+	 * Locate all the <code>@FindBy</code> elements of the page object (including the inherited ones) in a single browser call, instead of
+	 * one lookup per element on first use.<br>
+	 * The elements that are not found are reported together, and will be looked up again when used
+	 */
+	protected void resolveElements() {
+
+		List<CachingElementLocator> locators = new ArrayList<>();
+		List<String> fieldNames = new ArrayList<>();
+		List<List<String>> specs = new ArrayList<>();
+
+		for (Map.Entry<String, CachingElementLocator> entry : bindings.getLocators().entrySet()) {
+
+			CachingElementLocator locator = entry.getValue();
+			List<String> spec = locator.getResolveSpec();
+
+			if (spec == null) {
+				continue; // e.g. @FindBys chains, located on use
+			}
+
+			locators.add(locator);
+			fieldNames.add(entry.getKey() + " (" + locator.getBy() + ")");
+			specs.add(spec);
+		}
+
+		if (specs.isEmpty()) {
+			return;
+		}
+
+		List<?> elements = (List<?>) JsLibrary.call("resolve", specs);
+		List<String> missing = new ArrayList<>();
+
+		for (int i = 0; i < locators.size(); i++) {
+
+			Object element = elements.get(i);
+
+			if (element instanceof WebElement) {
+				locators.get(i).prime((WebElement) element);
+			} else {
+				missing.add(fieldNames.get(i));
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			LOG.warn(getClass().getSimpleName() + ": " + missing.size() + " element(s) not found: " + String.join(", ", missing));
+		}
+	}
+
+	/**
+	 * Get the component of the given type (e.g. a menu) for the document loaded in the browser, creating it on first access.<br>
+	 * Components are shared by all the page objects of the same document, and created again after the next navigation
+	 *
+	 * @param type
+	 *        the component type
+	 * @param factory
+	 *        creates the component, usually its constructor
+	 * @return
+	 */
+	protected <T extends AbstractPageObject> T getComponent(Class<T> type, Function<WebDriver, T> factory) {
+		return PageComponents.get(driver, type, factory);
+	}
+
+	/**
+	 * Click the given element and wait until the page it leads to has settled (see {@link PageReady}).<br>
+	 * Navigation methods use it instead of waiting for elements of the next page
+	 *
+	 * @param element
+	 *        the link or button starting the navigation
+	 */
+	protected void clickAndWaitForPageReady(WebElement element) {
+
+		PageReady.install(driver);
+
+		element.click();
+
+		new WaitElement().waitUntil(DomCondition.pageReady(), PAGE_READY_TIMEOUT);
+
+		DomEpoch.advance(); // the elements located on the previous page are gone
+	}
 }
\ No newline at end of file
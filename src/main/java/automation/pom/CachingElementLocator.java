@@ -0,0 +1,105 @@
+package automation.pom;
+
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import automation.core.DomEpoch;
+
+/**
+ * {@link ElementLocator} that keeps the located element until the next {@link DomEpoch} (navigation) or until it is invalidated after a
+ * stale element error (see {@link LazyElement})
+ *
+ * @author alexgabor
+ *
+ */
+class CachingElementLocator implements ElementLocator {
+
+	private final SearchContext searchContext;
+	private final By by;
+	private final List<String> resolveSpec;
+
+	private WebElement element;
+	private long elementEpoch;
+
+	/**
+	 * @param searchContext
+	 *        the {@link SearchContext} in which the element is located
+	 * @param by
+	 *        the locator of the element
+	 * @param resolveSpec
+	 *        the {@link By} factory method and its argument, e.g. <code>[id, s]</code>, if the element can be located along with the other
+	 *        elements of the page (see {@link AbstractPageObject#resolveElements()}); <code>null</code> otherwise
+	 */
+	CachingElementLocator(SearchContext searchContext, By by, List<String> resolveSpec) {
+
+		this.searchContext = searchContext;
+		this.by = by;
+		this.resolveSpec = resolveSpec;
+	}
+
+	@Override
+	public WebElement findElement() {
+
+		long epoch = DomEpoch.current();
+
+		if (element == null || elementEpoch != epoch) {
+
+			element = searchContext.findElement(by);
+			elementEpoch = epoch;
+		}
+
+		return element;
+	}
+
+	@Override
+	public List<WebElement> findElements() {
+		return searchContext.findElements(by);
+	}
+
+	/**
+	 * Get the locator of the element
+	 *
+	 * @return
+	 */
+	By getBy() {
+		return by;
+	}
+
+	/**
+	 * Get the {@link By} factory method and its argument, for locating the element along with the other elements of the page
+	 *
+	 * @return <code>null</code> if the locator is not a single simple strategy
+	 */
+	List<String> getResolveSpec() {
+		return resolveSpec;
+	}
+
+	/**
+	 * Cache an element located by other means (e.g. along with the other elements of the page, see {@link AbstractPageObject})
+	 *
+	 * @param element
+	 *        the element matching this locator
+	 */
+	void prime(WebElement element) {
+
+		this.element = element;
+		this.elementEpoch = DomEpoch.current();
+	}
+
+	/**
+	 * Forget the cached element, which will be located again on next use
+	 */
+	void invalidate() {
+		element = null;
+	}
+
+	@Override
+	public String toString() {
+		return "located by " + by;
+	}
+
+}
@@ -0,0 +1,142 @@
+package automation.pom;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.How;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+/**
+ * Field decorator giving the <code>@FindBy</code> {@link WebElement} fields a {@link LazyElement}, for the page objects without a generated
+ * {@link PageBinder}
+ *
+ * @author alexgabor
+ *
+ */
+class CachingFieldDecorator extends DefaultFieldDecorator {
+
+	/**
+	 * @param bindings
+	 *        the bindings in which the element locators are registered
+	 * @param searchContext
+	 *        the {@link SearchContext} in which the lists of elements are located
+	 */
+	CachingFieldDecorator(ElementBindings bindings, SearchContext searchContext) {
+		super(new LocatorFactory(bindings, searchContext));
+	}
+
+	@Override
+	protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+		return new LazyElement((CachingElementLocator) locator);
+	}
+
+	/**
+	 * {@link ElementLocatorFactory} registering the locator of each {@link WebElement} field
+	 */
+	private static final class LocatorFactory implements ElementLocatorFactory {
+
+		private final ElementBindings bindings;
+		private final SearchContext searchContext;
+
+		LocatorFactory(ElementBindings bindings, SearchContext searchContext) {
+
+			this.bindings = bindings;
+			this.searchContext = searchContext;
+		}
+
+		@Override
+		public ElementLocator createLocator(Field field) {
+
+			if (!WebElement.class.isAssignableFrom(field.getType())) {
+				return new DefaultElementLocator(searchContext, field); // lists are located on every use
+			}
+
+			return bindings.locator(field.getName(), new Annotations(field).buildBy(), getResolveSpec(field.getAnnotation(FindBy.class)));
+		}
+
+		/**
+		 * Get the {@link org.openqa.selenium.By} factory method and argument of the given annotation, if it uses a single simple strategy
+		 *
+		 * @param findBy
+		 *        the annotation of the field
+		 * @return <code>null</code> for the other locators (no annotation, id or name, several attributes, ...)
+		 */
+		private static List<String> getResolveSpec(FindBy findBy) {
+
+			if (findBy == null) {
+				return null;
+			}
+
+			String[][] attributes = { { "id", findBy.id() }, { "name", findBy.name() }, { "className", findBy.className() },
+					{ "cssSelector", findBy.css() }, { "tagName", findBy.tagName() }, { "linkText", findBy.linkText() },
+					{ "partialLinkText", findBy.partialLinkText() }, { "xpath", findBy.xpath() } };
+
+			List<String> spec = null;
+
+			for (String[] attribute : attributes) {
+
+				if (attribute[1].isEmpty()) {
+					continue;
+				}
+
+				if (spec != null) {
+					return null; // rejected by the PageFactory anyway
+				}
+
+				spec = Arrays.asList(attribute);
+			}
+
+			if (findBy.how() == How.UNSET) {
+				return spec;
+			}
+
+			if (spec != null || findBy.using().isEmpty()) {
+				return null;
+			}
+
+			String using = getFactoryMethod(findBy.how());
+
+			return using == null ? null : Arrays.asList(using, findBy.using());
+		}
+
+		/**
+		 * Get the {@link org.openqa.selenium.By} factory method of the given strategy
+		 *
+		 * @param how
+		 *        the strategy
+		 * @return <code>null</code> if there is no simple factory method for it
+		 */
+		private static String getFactoryMethod(How how) {
+
+			switch (how) {
+			case ID:
+				return "id";
+			case NAME:
+				return "name";
+			case CLASS_NAME:
+				return "className";
+			case CSS:
+				return "cssSelector";
+			case TAG_NAME:
+				return "tagName";
+			case LINK_TEXT:
+				return "linkText";
+			case PARTIAL_LINK_TEXT:
+				return "partialLinkText";
+			case XPATH:
+				return "xpath";
+			default:
+				return null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package automation.pom;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+/**
+ * The <code>@FindBy</code> elements bound to a page object, either by its generated {@link PageBinder} or by the {@link CachingFieldDecorator}
+ *
+ * @author alexgabor
+ *
+ */
+public final class ElementBindings {
+
+	private final SearchContext searchContext;
+	private final Map<String, CachingElementLocator> locators = new LinkedHashMap<>();
+
+	/**
+	 * @param searchContext
+	 *        the {@link SearchContext} in which the elements are located
+	 */
+	ElementBindings(SearchContext searchContext) {
+		this.searchContext = searchContext;
+	}
+
+	/**
+	 * Create the element to assign to the given field
+	 *
+	 * @param fieldName
+	 *        the name of the field
+	 * @param by
+	 *        the locator of the element
+	 * @return an element located on first use and reused until the next navigation
+	 */
+	public WebElement element(String fieldName, By by) {
+		return new LazyElement(locator(fieldName, by, null));
+	}
+
+	/**
+	 * Create the element to assign to the given field, which uses a simple locator and can thus be located along with the other elements
+	 * of the page (see {@link AbstractPageObject#resolveElements()})
+	 *
+	 * @param fieldName
+	 *        the name of the field
+	 * @param by
+	 *        the locator of the element
+	 * @param using
+	 *        the {@link By} factory method of the locator: <code>id</code>, <code>name</code>, <code>className</code>,
+	 *        <code>cssSelector</code>, <code>tagName</code>, <code>linkText</code>, <code>partialLinkText</code> or <code>xpath</code>
+	 * @param value
+	 *        the argument of the factory method
+	 * @return an element located on first use and reused until the next navigation
+	 */
+	public WebElement element(String fieldName, By by, String using, String value) {
+		return new LazyElement(locator(fieldName, by, Arrays.asList(using, value)));
+	}
+
+	/**
+	 * Create and register the locator of the given field
+	 *
+	 * @param fieldName
+	 *        the name of the field
+	 * @param by
+	 *        the locator of the element
+	 * @param resolveSpec
+	 *        the {@link By} factory method and its argument, <code>null</code> if the locator is not a simple one
+	 * @return
+	 */
+	CachingElementLocator locator(String fieldName, By by, List<String> resolveSpec) {
+
+		CachingElementLocator locator = new CachingElementLocator(searchContext, by, resolveSpec);
+
+		locators.put(fieldName, locator);
+
+		return locator;
+	}
+
+	/**
+	 * Get the locators of the bound elements, by field name
+	 *
+	 * @return
+	 */
+	Map<String, CachingElementLocator> getLocators() {
+		return Collections.unmodifiableMap(locators);
+	}
+
+}
@@ -0,0 +1,189 @@
+package automation.pom;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+
+/**
+ * {@link WebElement} assigned to the <code>@FindBy</code> fields, which reuses the located element (see {@link CachingElementLocator}) and
+ * transparently locates it again, a bounded number of times, when it has gone stale
+ *
+ * @author alexgabor
+ *
+ */
+final class LazyElement implements WebElement, WrapsElement, Locatable {
+
+	private static final int MAX_STALE_RETRIES = 2;
+
+	private final CachingElementLocator locator;
+
+	/**
+	 * @param locator
+	 *        the locator of the element
+	 */
+	LazyElement(CachingElementLocator locator) {
+		this.locator = locator;
+	}
+
+	@Override
+	public WebElement getWrappedElement() {
+		return locator.findElement();
+	}
+
+	@Override
+	public void click() {
+		call(element -> {
+			element.click();
+			return null;
+		});
+	}
+
+	@Override
+	public void submit() {
+		call(element -> {
+			element.submit();
+			return null;
+		});
+	}
+
+	@Override
+	public void sendKeys(CharSequence... keysToSend) {
+		call(element -> {
+			element.sendKeys(keysToSend);
+			return null;
+		});
+	}
+
+	@Override
+	public void clear() {
+		call(element -> {
+			element.clear();
+			return null;
+		});
+	}
+
+	@Override
+	public String getTagName() {
+		return call(WebElement::getTagName);
+	}
+
+	@Override
+	public String getAttribute(String name) {
+		return call(element -> element.getAttribute(name));
+	}
+
+	@Override
+	public boolean isSelected() {
+		return call(WebElement::isSelected);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return call(WebElement::isEnabled);
+	}
+
+	@Override
+	public String getText() {
+		return call(WebElement::getText);
+	}
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		return call(element -> element.findElements(by));
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		return call(element -> element.findElement(by));
+	}
+
+	@Override
+	public boolean isDisplayed() {
+		return call(WebElement::isDisplayed);
+	}
+
+	@Override
+	public Point getLocation() {
+		return call(WebElement::getLocation);
+	}
+
+	@Override
+	public Dimension getSize() {
+		return call(WebElement::getSize);
+	}
+
+	@Override
+	public Rectangle getRect() {
+		return call(WebElement::getRect);
+	}
+
+	@Override
+	public String getCssValue(String propertyName) {
+		return call(element -> element.getCssValue(propertyName));
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		return call(element -> element.getScreenshotAs(target));
+	}
+
+	@Override
+	public Coordinates getCoordinates() {
+		return call(element -> ((Locatable) element).getCoordinates());
+	}
+
+	/**
+	 * Two lazy elements are equal when they use the same locator (the same field of the same page object), without looking the element up
+	 */
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof LazyElement && ((LazyElement) other).locator == locator;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(locator);
+	}
+
+	@Override
+	public String toString() {
+		return "Element " + locator; // stable description, without looking the element up
+	}
+
+	/**
+	 * Call the given method on the located element, locating it again if it has gone stale
+	 *
+	 * @param method
+	 *        the method to call
+	 * @return the result of the method
+	 */
+	private <T> T call(Function<WebElement, T> method) {
+
+		for (int attempt = 0;; attempt++) {
+
+			try {
+
+				return method.apply(locator.findElement());
+
+			} catch (StaleElementReferenceException e) {
+
+				if (attempt >= MAX_STALE_RETRIES) {
+					throw e;
+				}
+
+				locator.invalidate();
+			}
+		}
+	}
+
+}
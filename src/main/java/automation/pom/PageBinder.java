@@ -0,0 +1,26 @@
+package automation.pom;
+
+/**
+ * Assigns the <code>@FindBy</code> fields of a page object without reflection.<br>
+ * Implementations are generated at compile time (class <code>&lt;PageObject&gt;_Binder</code>, next to the page object) for the page
+ * objects whose <code>@FindBy</code> fields are not private and use a single locator; the other page objects are initialized by the
+ * {@link org.openqa.selenium.support.PageFactory}
+ *
+ * @author alexgabor
+ *
+ * @param <T>
+ *        the page object type
+ */
+public interface PageBinder<T extends AbstractPageObject> {
+
+	/**
+	 * Assign the elements of the given page object, including the inherited ones
+	 *
+	 * @param page
+	 *        the page object
+	 * @param bindings
+	 *        the factory of the elements
+	 */
+	void bind(T page, ElementBindings bindings);
+
+}
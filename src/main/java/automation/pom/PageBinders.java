@@ -0,0 +1,61 @@
+package automation.pom;
+
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.support.PageFactory;
+
+/**
+ * Lookup of the generated {@link PageBinder} of each page object class, done once per class
+ *
+ * @author alexgabor
+ *
+ */
+final class PageBinders {
+
+	private static final String BINDER_SUFFIX = "_Binder";
+
+	private static final ClassValue<PageBinder<AbstractPageObject>> BINDERS = new ClassValue<PageBinder<AbstractPageObject>>() {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected PageBinder<AbstractPageObject> computeValue(Class<?> type) {
+
+			try {
+
+				Class<?> binderType = Class.forName(type.getName() + BINDER_SUFFIX, true, type.getClassLoader());
+
+				return (PageBinder<AbstractPageObject>) binderType.getDeclaredConstructor().newInstance();
+
+			} catch (ReflectiveOperationException | LinkageError e) {
+				return null; // no generated binder, see PageBinder
+			}
+		}
+	};
+
+	private PageBinders() {
+	}
+
+	/**
+	 * Assign the <code>@FindBy</code> fields of the given page object, with its generated binder if there is one, otherwise with the
+	 * {@link PageFactory}
+	 *
+	 * @param page
+	 *        the page object
+	 * @param searchContext
+	 *        the {@link SearchContext} in which the elements are located
+	 * @return the bound elements
+	 */
+	static ElementBindings bind(AbstractPageObject page, SearchContext searchContext) {
+
+		ElementBindings bindings = new ElementBindings(searchContext);
+		PageBinder<AbstractPageObject> binder = BINDERS.get(page.getClass());
+
+		if (binder != null) {
+			binder.bind(page, bindings);
+		} else {
+			PageFactory.initElements(new CachingFieldDecorator(bindings, searchContext), page);
+		}
+
+		return bindings;
+	}
+
+}
@@ -0,0 +1,65 @@
+package automation.pom;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.openqa.selenium.WebDriver;
+
+import automation.core.DomEpoch;
+
+/**
+ * Per thread cache of the page components (e.g. menus) of the loaded document, shared by all the page objects describing it and dropped on
+ * the next {@link DomEpoch} or when the driver changes
+ *
+ * @author alexgabor
+ *
+ */
+final class PageComponents {
+
+	private static final ThreadLocal<PageComponents> components = ThreadLocal.withInitial(PageComponents::new);
+
+	private final Map<Class<?>, Object> byType = new HashMap<>();
+
+	private WebDriver driver;
+	private long epoch;
+
+	private PageComponents() {
+	}
+
+	/**
+	 * Get the component of the given type for the document loaded in the given driver, creating it on first access
+	 *
+	 * @param driver
+	 *        the driver of the page object
+	 * @param type
+	 *        the component type
+	 * @param factory
+	 *        creates the component
+	 * @return
+	 */
+	static <T extends AbstractPageObject> T get(WebDriver driver, Class<T> type, Function<WebDriver, T> factory) {
+
+		PageComponents cache = components.get();
+		long currentEpoch = DomEpoch.current();
+
+		if (cache.driver != driver || cache.epoch != currentEpoch) {
+
+			cache.byType.clear();
+			cache.driver = driver;
+			cache.epoch = currentEpoch;
+		}
+
+		T component = type.cast(cache.byType.get(type));
+
+		if (component == null) {
+
+			component = factory.apply(driver); // may get components of its own, hence no computeIfAbsent
+
+			cache.byType.put(type, component);
+		}
+
+		return component;
+	}
+
+}
@@ -0,0 +1,19 @@
+package automation.pom;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a page object whose <code>@FindBy</code> elements are all located when it is created, in a single browser call (see
+ * {@link AbstractPageObject#resolveElements()}), instead of one lookup per element on first use
+ *
+ * @author alexgabor
+ *
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ResolveEagerly {
+
+}
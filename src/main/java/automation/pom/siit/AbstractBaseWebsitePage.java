@@ -1,14 +1,12 @@
 package automation.pom.siit;
 
 import static org.junit.Assert.assertEquals;
-import static org.openqa.selenium.support.ui.ExpectedConditions.visibilityOfAllElementsLocatedBy;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
-import automation.core.WaitElement;
 import automation.pom.AbstractPageObject;
 import automation.pom.siit.menu.MainMenu;
 
@@ -20,25 +18,23 @@ import automation.pom.siit.menu.MainMenu;
  */
 public class AbstractBaseWebsitePage extends AbstractPageObject {
 	
-	private MainMenu menu = new MainMenu(driver);
-	
 	@FindBy(id = "s")
-	private WebElement searchForm;
+	WebElement searchForm;
 
 	@FindBy(xpath = "//form[@id='searchform']/input[@type='submit']")
-	private WebElement btnSearch;
+	WebElement btnSearch;
 
 	public AbstractBaseWebsitePage(WebDriver driver) {
 		super(driver);
 	}
 	
 	/**
-	 * Get the Main Menu instance
+	 * Get the Main Menu instance, shared by the page objects of the current page
 	 * 
 	 * @return
 	 */
 	public MainMenu getMenu() {
-		return menu;
+		return getComponent(MainMenu.class, MainMenu::new);
 	}
 
 	/**
@@ -52,11 +48,7 @@ public class AbstractBaseWebsitePage extends AbstractPageObject {
 
 		searchForm.sendKeys(keywords);
 
-		btnSearch.click();
-
-		By resultsLocator = By.xpath("//section[@id='primary']");
-
-		new WaitElement().waitUntil(visibilityOfAllElementsLocatedBy(resultsLocator), 10);
+		clickAndWaitForPageReady(btnSearch);
 
 		return this;
 	}
@@ -1,21 +1,20 @@
 package automation.pom.siit;
 
-import static org.openqa.selenium.support.ui.ExpectedConditions.elementToBeClickable;
-import static org.openqa.selenium.support.ui.ExpectedConditions.visibilityOf;
-
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.Select;
 
-import automation.core.WaitElement;
+import automation.pom.ResolveEagerly;
+import automation.pom.siit.constants.ApplicationField;
 import automation.pom.siit.constants.EnglishLevel;
 import automation.pom.siit.constants.ITKnowledge;
 import automation.pom.siit.constants.Occupation;
-import automation.util.Event;
+import automation.util.FormControls;
+import automation.util.FormFill;
 
 /**
  * Page object class that describes the "Apply here" page used for joining a selected Course
@@ -23,69 +22,150 @@ import automation.util.Event;
  * @author alexgabor
  *
  */
+@ResolveEagerly
 public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 
+	private static final DateTimeFormatter BIRTH_DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
 	@FindBy(name = "candidate_first_name")
-	private WebElement txtFirstName;
+	WebElement txtFirstName;
 
 	@FindBy(name = "candidate_last_name")
-	private WebElement txtLastName;
+	WebElement txtLastName;
 
 	@FindBy(name = "field_key_date")
-	private WebElement cldBirthDate;
+	WebElement cldBirthDate;
 
 	@FindBy(name = "candidate_email")
-	private WebElement txtEmail;
+	WebElement txtEmail;
 
 	@FindBy(name = "candidate_phone")
-	private WebElement txtPhone;
+	WebElement txtPhone;
 
 	@FindBy(name = "candidate_online_profile")
-	private WebElement txtLinkedInProfile;
+	WebElement txtLinkedInProfile;
 
 	@FindBy(name = "candidate_address")
-	private WebElement txtAddress;
+	WebElement txtAddress;
 
 	@FindBy(id = "candidate_location")
-	private WebElement selectCity;
+	WebElement selectCity;
 
 	@FindBy(id = "candidate_social_standing")
-	private WebElement selectOccupation;
+	WebElement selectOccupation;
 
 	@FindBy(xpath = "//input[@name='candidate_technical_skills' and @value='DA']")
-	private WebElement radioITKnowledgeYes;
+	WebElement radioITKnowledgeYes;
 
 	@FindBy(xpath = "//input[@name='candidate_technical_skills' and @value='NU']")
-	private WebElement radioITKnowledgeNo;
+	WebElement radioITKnowledgeNo;
 
 	@FindBy(xpath = "//input[@name='candidate_technical_skills' and @value='Am studiat individual']")
-	private WebElement radioITKnowledgeSelf;
+	WebElement radioITKnowledgeSelf;
 
 	@FindBy(id = "available_courses")
-	private WebElement selectCourseName;
+	WebElement selectCourseName;
 
 	@FindBy(id = "candidate_business_sector")
-	private WebElement selectBusinessSector;
+	WebElement selectBusinessSector;
 
 	@FindBy(id = "candidate_english_level")
-	private WebElement selectEnglishLevel;
+	WebElement selectEnglishLevel;
 
 	@FindBy(name = "marketing_source")
-	private WebElement txtHeardOfSIIT;
+	WebElement txtHeardOfSIIT;
 
 	@FindBy(name = "rb_newsletter")
-	private WebElement chkNewsletter;
+	WebElement chkNewsletter;
 
 	@FindBy(name = "acknowledgement")
-	private WebElement chkTermsAndConditions;
+	WebElement chkTermsAndConditions;
 
 	@FindBy(xpath = "//button[.='Submit']")
-	private WebElement btnSubmit;
+	WebElement btnSubmit;
 
 	public ApplyToCoursePage(WebDriver driver) {
 		super(driver);
 	}
 
+	/**
+	 * Fill the given fields of the application form at once (see {@link FormFill}); the birth date is typed, for its date picker
+	 * 
+	 * @param values
+	 *        the values of the fields, of the type given by {@link ApplicationField#getValueType()}
+	 * @throws IllegalArgumentException
+	 *         if a value does not have the type of its field
+	 */
+	public void fillForm(Map<ApplicationField, ?> values) {
+
+		FormFill formFill = new FormFill();
+
+		for (Map.Entry<ApplicationField, ?> entry : values.entrySet()) {
+
+			ApplicationField field = entry.getKey();
+			Object value = entry.getValue();
+
+			if (!field.getValueType().isInstance(value)) {
+				throw new IllegalArgumentException("The value of " + field + " must be a " + field.getValueType().getSimpleName() + ": " + value);
+			}
+
+			switch (field) {
+			case FIRST_NAME:
+				formFill.value(txtFirstName, (String) value);
+				break;
+			case LAST_NAME:
+				formFill.value(txtLastName, (String) value);
+				break;
+			case BIRTH_DATE:
+				formFill.keystrokes(cldBirthDate, ((LocalDate) value).format(BIRTH_DATE_FORMAT));
+				break;
+			case EMAIL:
+				formFill.value(txtEmail, (String) value);
+				break;
+			case PHONE:
+				formFill.value(txtPhone, (String) value);
+				break;
+			case LINKEDIN_PROFILE:
+				formFill.value(txtLinkedInProfile, (String) value);
+				break;
+			case ADDRESS:
+				formFill.value(txtAddress, (String) value);
+				break;
+			case CITY:
+				formFill.selectByValue(selectCity, (String) value);
+				break;
+			case OCCUPATION:
+				formFill.selectByValue(selectOccupation, ((Occupation) value).getLabel());
+				break;
+			case IT_KNOWLEDGE:
+				formFill.checked(getITKnowledgeRadio((ITKnowledge) value), true);
+				break;
+			case COURSE_NAME:
+				formFill.selectByVisibleText(selectCourseName, (String) value);
+				break;
+			case BUSINESS_SECTOR:
+				formFill.selectByValue(selectBusinessSector, (String) value);
+				break;
+			case ENGLISH_LEVEL:
+				formFill.selectByValue(selectEnglishLevel, ((EnglishLevel) value).getLabel());
+				break;
+			case HEARD_OF_SIIT_FROM:
+				formFill.value(txtHeardOfSIIT, (String) value);
+				break;
+			case NEWSLETTER:
+				formFill.checked(chkNewsletter, (Boolean) value);
+				break;
+			case TERMS_ACKNOWLEDGEMENT:
+				formFill.checked(chkTermsAndConditions, (Boolean) value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unhandled enum constant for application field: " + field);
+			}
+		}
+
+		formFill.execute();
+	}
+
 	/**
 	 * Enter the first name of the trainee on the application form
 	 * 
@@ -94,9 +174,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void enterFirstName(String firstName) {
 
-		new WaitElement().waitUntil(visibilityOf(txtFirstName), 10);
-
-		txtFirstName.sendKeys(firstName);
+		FormControls.typeInto(txtFirstName, firstName);
 	}
 
 	/**
@@ -107,9 +185,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void enterLastName(String lastName) {
 
-		new WaitElement().waitUntil(visibilityOf(txtLastName), 10);
-
-		txtLastName.sendKeys(lastName);
+		FormControls.typeInto(txtLastName, lastName);
 	}
 
 	/**
@@ -120,11 +196,9 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void enterBirthDate(LocalDate birthDate) {
 
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+		String date = birthDate.format(BIRTH_DATE_FORMAT);
 
-		String date = birthDate.format(formatter);
-
-		cldBirthDate.sendKeys(date);
+		FormControls.typeInto(cldBirthDate, date);
 	}
 
 	/**
@@ -135,7 +209,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void enterEmailAddress(String email) {
 
-		txtEmail.sendKeys(email);
+		FormControls.typeInto(txtEmail, email);
 	}
 
 	/**
@@ -146,7 +220,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void enterPhoneNumber(String phoneNumber) {
 
-		txtPhone.sendKeys(phoneNumber);
+		FormControls.typeInto(txtPhone, phoneNumber);
 	}
 
 	/**
@@ -157,7 +231,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void enterLinkedInProfile(String linkedInProfileURL) {
 
-		txtLinkedInProfile.sendKeys(linkedInProfileURL);
+		FormControls.typeInto(txtLinkedInProfile, linkedInProfileURL);
 	}
 
 	/**
@@ -168,7 +242,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void enterAddress(String address) {
 
-		txtAddress.sendKeys(address);
+		FormControls.typeInto(txtAddress, address);
 	}
 
 	/**
@@ -179,9 +253,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void selectCity(String city) {
 
-		Select dropdown = new Select(selectCity);
-
-		dropdown.selectByValue(city);
+		FormControls.selectByValue(selectCity, city);
 	}
 
 	/**
@@ -192,9 +264,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void selectOccupation(Occupation occupation) {
 
-		Select dropdown = new Select(selectOccupation);
-
-		dropdown.selectByValue(occupation.getLabel());
+		FormControls.selectByValue(selectOccupation, occupation.getLabel());
 	}
 
 	/**
@@ -205,32 +275,27 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void checkITKnowledge(ITKnowledge itKnowledge) {
 
-		WaitElement w = new WaitElement();
+		FormControls.setChecked(getITKnowledgeRadio(itKnowledge), true);
+	}
+
+	/**
+	 * Get the radio button of the given IT knowledge level
+	 * 
+	 * @param itKnowledge
+	 *        the IT knowledge level
+	 * @return
+	 */
+	private WebElement getITKnowledgeRadio(ITKnowledge itKnowledge) {
 
 		switch (itKnowledge) {
 		case YES:
-
-			w.waitUntil(elementToBeClickable(radioITKnowledgeYes), 15);
-
-			radioITKnowledgeYes.click();
-
-			break;
+			return radioITKnowledgeYes;
 
 		case NO:
-
-			w.waitUntil(elementToBeClickable(radioITKnowledgeNo), 15);
-
-			radioITKnowledgeNo.click();
-
-			break;
+			return radioITKnowledgeNo;
 
 		case SELF_TAUGHT:
-
-			w.waitUntil(elementToBeClickable(radioITKnowledgeSelf), 15);
-
-			radioITKnowledgeSelf.click();
-
-			break;
+			return radioITKnowledgeSelf;
 
 		default:
 			throw new IllegalArgumentException("Unhandled enum constant for IT knowledge: " + itKnowledge);
@@ -245,9 +310,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void selectCourseName(String courseName) {
 
-		Select dropdown = new Select(selectCourseName);
-
-		dropdown.selectByVisibleText(courseName);
+		FormControls.selectByVisibleText(selectCourseName, courseName);
 	}
 
 	/**
@@ -258,9 +321,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void selectBusinessSector(String businessSector) {
 
-		Select dropdown = new Select(selectBusinessSector);
-
-		dropdown.selectByValue(businessSector);
+		FormControls.selectByValue(selectBusinessSector, businessSector);
 	}
 
 	/**
@@ -271,9 +332,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void selectEnglishLevel(EnglishLevel englishLevel) {
 
-		Select dropdown = new Select(selectEnglishLevel);
-
-		dropdown.selectByValue(englishLevel.getLabel());
+		FormControls.selectByValue(selectEnglishLevel, englishLevel.getLabel());
 	}
 
 	/**
@@ -284,7 +343,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void enterHeardOfSIITFrom(String heardFromSource) {
 
-		txtHeardOfSIIT.sendKeys(heardFromSource);
+		FormControls.typeInto(txtHeardOfSIIT, heardFromSource);
 	}
 
 	/**
@@ -295,22 +354,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void checkNewsletterSubscription(boolean isSubscribedToNewsletter) {
 
-		new WaitElement().waitUntil(elementToBeClickable(chkNewsletter), 15);
-
-		Event.scrollTo(chkNewsletter);
-
-		if (isSubscribedToNewsletter) {
-
-			if (!chkNewsletter.isSelected()) {
-				chkNewsletter.click(); // check checkbox
-			}
-
-		} else {
-
-			if (chkNewsletter.isSelected()) {
-				chkNewsletter.click(); // uncheck checkbox
-			}
-		}
+		FormControls.setChecked(chkNewsletter, isSubscribedToNewsletter);
 	}
 
 	/**
@@ -321,22 +365,7 @@ public class ApplyToCoursePage extends AbstractBaseWebsitePage {
 	 */
 	public void checkTermsAcknowledgement(boolean isAcknowledgeTerms) {
 
-		new WaitElement().waitUntil(elementToBeClickable(chkTermsAndConditions), 15);
-
-		Event.scrollTo(chkTermsAndConditions);
-
-		if (isAcknowledgeTerms) {
-
-			if (!chkTermsAndConditions.isSelected()) {
-				chkTermsAndConditions.click(); // check checkbox
-			}
-
-		} else {
-
-			if (chkTermsAndConditions.isSelected()) {
-				chkTermsAndConditions.click(); // uncheck checkbox
-			}
-		}
+		FormControls.setChecked(chkTermsAndConditions, isAcknowledgeTerms);
 	}
 	
 	/**
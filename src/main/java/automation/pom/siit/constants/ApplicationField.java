@@ -0,0 +1,46 @@
+package automation.pom.siit.constants;
+
+import java.time.LocalDate;
+
+/**
+ * Enum holding the fields of the course application form, in the form order, and the type of their values (see
+ * {@link automation.pom.siit.ApplyToCoursePage#fillForm(java.util.Map)})
+ * 
+ * @author alexgabor
+ *
+ */
+public enum ApplicationField {
+
+	FIRST_NAME(String.class),
+	LAST_NAME(String.class),
+	BIRTH_DATE(LocalDate.class),
+	EMAIL(String.class),
+	PHONE(String.class),
+	LINKEDIN_PROFILE(String.class),
+	ADDRESS(String.class),
+	CITY(String.class),
+	OCCUPATION(Occupation.class),
+	IT_KNOWLEDGE(ITKnowledge.class),
+	COURSE_NAME(String.class),
+	BUSINESS_SECTOR(String.class),
+	ENGLISH_LEVEL(EnglishLevel.class),
+	HEARD_OF_SIIT_FROM(String.class),
+	NEWSLETTER(Boolean.class),
+	TERMS_ACKNOWLEDGEMENT(Boolean.class);
+
+	private Class<?> valueType;
+
+	ApplicationField(Class<?> valueType) {
+		this.valueType = valueType;
+	}
+
+	/**
+	 * Get the type of the values of this field
+	 * 
+	 * @return
+	 */
+	public Class<?> getValueType() {
+		return valueType;
+	}
+
+}
@@ -19,16 +19,16 @@ import automation.pom.siit.NetworkPage;
 public class MainMenu extends AbstractPageObject {
 
 	@FindBy(xpath = "//ul[@id='menu-header-menu']//a[@href and .='Home']")
-	private WebElement home;
+	WebElement home;
 
 	@FindBy(xpath = "//ul[@id='menu-header-menu']//a[@href and .='Admissions']")
-	private WebElement admissions;
+	WebElement admissions;
 
 	@FindBy(xpath = "//ul[@id='menu-header-menu']//a[@href and .='Network']")
-	private WebElement network;
+	WebElement network;
 
 	@FindBy(xpath = "//ul[@id='menu-header-menu']//a[@href and .='Contact']")
-	private WebElement contact;
+	WebElement contact;
 	
 	public MainMenu(WebDriver driver) {
 		super(driver);
@@ -41,7 +41,7 @@ public class MainMenu extends AbstractPageObject {
 	 */
 	public HomePage goToHomePage() {
 
-		home.click();
+		clickAndWaitForPageReady(home);
 
 		return new HomePage(driver);
 	}
@@ -53,7 +53,7 @@ public class MainMenu extends AbstractPageObject {
 	 */
 	public AdmissionsPage goToAdmissionsPage() {
 
-		admissions.click();
+		clickAndWaitForPageReady(admissions);
 
 		return new AdmissionsPage(driver);
 	}
@@ -65,7 +65,7 @@ public class MainMenu extends AbstractPageObject {
 	 */
 	public NetworkPage goToNetworkPage() {
 
-		network.click();
+		clickAndWaitForPageReady(network);
 
 		return new NetworkPage(driver);
 	}
@@ -77,7 +77,7 @@ public class MainMenu extends AbstractPageObject {
 	 */
 	public ContactPage goToContactPage() {
 
-		contact.click();
+		clickAndWaitForPageReady(contact);
 
 		return new ContactPage(driver);
 	}
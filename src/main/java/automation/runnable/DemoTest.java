@@ -1,11 +1,29 @@
 package automation.runnable;
 
+import static automation.pom.siit.constants.ApplicationField.ADDRESS;
+import static automation.pom.siit.constants.ApplicationField.BIRTH_DATE;
+import static automation.pom.siit.constants.ApplicationField.BUSINESS_SECTOR;
+import static automation.pom.siit.constants.ApplicationField.CITY;
+import static automation.pom.siit.constants.ApplicationField.COURSE_NAME;
+import static automation.pom.siit.constants.ApplicationField.EMAIL;
+import static automation.pom.siit.constants.ApplicationField.ENGLISH_LEVEL;
+import static automation.pom.siit.constants.ApplicationField.FIRST_NAME;
+import static automation.pom.siit.constants.ApplicationField.HEARD_OF_SIIT_FROM;
+import static automation.pom.siit.constants.ApplicationField.IT_KNOWLEDGE;
+import static automation.pom.siit.constants.ApplicationField.LAST_NAME;
+import static automation.pom.siit.constants.ApplicationField.LINKEDIN_PROFILE;
+import static automation.pom.siit.constants.ApplicationField.NEWSLETTER;
+import static automation.pom.siit.constants.ApplicationField.OCCUPATION;
+import static automation.pom.siit.constants.ApplicationField.PHONE;
+import static automation.pom.siit.constants.ApplicationField.TERMS_ACKNOWLEDGEMENT;
 import static automation.pom.siit.constants.EnglishLevel.ADVANCED;
 import static automation.pom.siit.constants.ITKnowledge.SELF_TAUGHT;
 import static automation.pom.siit.constants.Occupation.FREELANCER;
 import static java.time.Month.AUGUST;
 
 import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -13,6 +31,7 @@ import automation.core.SeleneseTest;
 import automation.pom.siit.AdmissionsPage;
 import automation.pom.siit.ApplyToCoursePage;
 import automation.pom.siit.HomePage;
+import automation.pom.siit.constants.ApplicationField;
 import automation.pom.siit.menu.MainMenu;
 
 /**
@@ -55,37 +74,26 @@ public class DemoTest extends SeleneseTest {
 
 		ApplyToCoursePage applyToCourseForm = new ApplyToCoursePage(getWebDriver());
 
-		applyToCourseForm.enterFirstName("John");
-
-		applyToCourseForm.enterLastName("Doe");
-
-		applyToCourseForm.enterBirthDate(LocalDate.of(1993, AUGUST, 10));
-
-		applyToCourseForm.enterEmailAddress("automation_trainee@gmail.com");
-
-		applyToCourseForm.enterPhoneNumber("0722111111");
-
-		applyToCourseForm.enterLinkedInProfile("https://www.linkedin.com/abc");
-
-		applyToCourseForm.enterAddress("Str. Neasfaltata, nr. -1");
-
-		applyToCourseForm.selectCity("Iași");
-
-		applyToCourseForm.selectOccupation(FREELANCER);
-
-		applyToCourseForm.checkITKnowledge(SELF_TAUGHT);
-
-		applyToCourseForm.selectCourseName("Test Automation - Mai 2019");
-
-		applyToCourseForm.selectBusinessSector("Altele");
-
-		applyToCourseForm.selectEnglishLevel(ADVANCED);
-
-		applyToCourseForm.enterHeardOfSIITFrom("De pe Facebook");
-
-		applyToCourseForm.checkNewsletterSubscription(true);
-
-		applyToCourseForm.checkTermsAcknowledgement(true);
+		Map<ApplicationField, Object> values = new EnumMap<>(ApplicationField.class);
+
+		values.put(FIRST_NAME, "John");
+		values.put(LAST_NAME, "Doe");
+		values.put(BIRTH_DATE, LocalDate.of(1993, AUGUST, 10));
+		values.put(EMAIL, "automation_trainee@gmail.com");
+		values.put(PHONE, "0722111111");
+		values.put(LINKEDIN_PROFILE, "https://www.linkedin.com/abc");
+		values.put(ADDRESS, "Str. Neasfaltata, nr. -1");
+		values.put(CITY, "Iași");
+		values.put(OCCUPATION, FREELANCER);
+		values.put(IT_KNOWLEDGE, SELF_TAUGHT);
+		values.put(COURSE_NAME, "Test Automation - Mai 2019");
+		values.put(BUSINESS_SECTOR, "Altele");
+		values.put(ENGLISH_LEVEL, ADVANCED);
+		values.put(HEARD_OF_SIIT_FROM, "De pe Facebook");
+		values.put(NEWSLETTER, true);
+		values.put(TERMS_ACKNOWLEDGEMENT, true);
+
+		applyToCourseForm.fillForm(values);
 
 		// applyToCourseForm.clickSubmitForm(); // would be fun
 	}
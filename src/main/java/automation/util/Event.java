@@ -1,20 +1,15 @@
 package automation.util;
 
-import static org.openqa.selenium.Keys.CONTROL;
-import static org.openqa.selenium.Keys.END;
-
-import java.util.List;
+import static automation.core.TestContext.getCurrentWebDriver;
 
 import org.openqa.selenium.By;
-import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.Point;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 
-import automation.core.browser.BrowserSession;
 import automation.core.logging.MessageLogger;
+import automation.core.properties.Settings;
 
 /**
  * Contains methods for simulating various events
@@ -26,6 +21,13 @@ public final class Event {
 
 	private static final MessageLogger LOG = new MessageLogger(Event.class);
 
+	/**
+	 * Pixels kept between the element and the overlay or the viewport edge
+	 */
+	static final int SCROLL_MARGIN = 5;
+
+	private static volatile String headerSelector = null;
+
 	private Event() {
 	}
 
@@ -41,9 +43,7 @@ public final class Event {
 
 		LOG.info("Scrolling " + direction + " by " + howMuch + "px");
 
-		JavascriptExecutor js = (JavascriptExecutor) BrowserSession.getInstance().getWebDriver();
-
-		js.executeScript("window.scrollBy(0," + howMuch + ")");
+		JsLibrary.call("scrollBy", 0, howMuch);
 	}
 
 	/**
@@ -58,9 +58,7 @@ public final class Event {
 
 		LOG.info("Scrolling " + direction + " by " + howMuch + "px");
 
-		JavascriptExecutor js = (JavascriptExecutor) BrowserSession.getInstance().getWebDriver();
-
-		js.executeScript("window.scrollBy(" + howMuch + ",0)");
+		JsLibrary.call("scrollBy", howMuch, 0);
 	}
 
 	/**
@@ -71,7 +69,7 @@ public final class Event {
 	 */
 	public static void scrollTo(By locator) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = getCurrentWebDriver();
 		WebElement element = driver.findElement(locator);
 
 		try {
@@ -92,52 +90,10 @@ public final class Event {
 		/*
 		 * Need to scroll into view relative to the Main Menu navigation bar, which is an overlay.
 		 * This causes situations where the element is under this overlay, thus not being clickable on Chrome.
+		 * The measuring and scrolling is done in the page, in a single call.
 		 */
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
-		List<WebElement> menuBars = driver.findElements(By.id("header"));
-
-		if (menuBars.isEmpty()) {
-			return;
-		}
-
-		WebElement mainMenuBar = menuBars.get(0);
-
-		if (!mainMenuBar.isDisplayed()) {
-			return;
-		}
-
-		new Actions(driver).moveToElement(element).build().perform();
-
-		Point menuLocation = mainMenuBar.getLocation();
-		Point elementLocation = element.getLocation();
-
-		int viewPortHeight = getViewPortHeight();
-		int mainMenuBarHeight = mainMenuBar.getSize().getHeight();
-		int elementHeight = element.getSize().getHeight();
-		int offset = elementLocation.getY() - menuLocation.getY();
-		int elementToMenuBarDistance = viewPortHeight - elementHeight - mainMenuBarHeight;
-
-		if (offset > mainMenuBarHeight && offset < elementToMenuBarDistance) {
-
-			// no need to scroll
-
-			return;
-		}
-
-		int safetyMargin = offset > 0 ? 5 : -5;
-		int howMuch = 0;
-
-		if (offset < mainMenuBarHeight) {
-
-			howMuch = offset - mainMenuBarHeight + safetyMargin;
-
-		} else if (offset > elementToMenuBarDistance) {
-
-			howMuch = Math.abs(offset - elementToMenuBarDistance) + safetyMargin;
-		}
-
-		scrollVertically(howMuch);
+		scroll("element", element);
 	}
 
 	/**
@@ -148,26 +104,20 @@ public final class Event {
 	 */
 	public static void scrollToJS(By locator) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = getCurrentWebDriver();
 
 		scrollToJS(driver.findElement(locator));
 	}
 
 	/**
-	 * Scroll to the given element
+	 * Scroll to the given element (same as {@link #scrollTo(WebElement)})
 	 * 
 	 * @param element
 	 *        {@link WebElement} to scroll to
 	 */
 	public static void scrollToJS(WebElement element) {
 
-		Point hoverItem = element.getLocation();
-
-		JavascriptExecutor js = (JavascriptExecutor) BrowserSession.getInstance().getWebDriver();
-
-		js.executeScript("window.scrollBy(0," + hoverItem.getY() + ");");
-
-		// or ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView();", element);
+		scroll("element", element);
 	}
 
 	/**
@@ -175,15 +125,7 @@ public final class Event {
 	 */
 	public static void scrollToBottom() {
 
-		// 1st manner
-		Actions actions = new Actions(BrowserSession.getInstance().getWebDriver());
-
-		actions.keyDown(CONTROL).sendKeys(END).perform();
-
-		// 2nd manner (in case the 1st didn't work)
-		JavascriptExecutor jse = (JavascriptExecutor) BrowserSession.getInstance().getWebDriver();
-
-		jse.executeScript("window.scrollTo(0,Math.max(document.documentElement.scrollHeight,document.body.scrollHeight,document.documentElement.clientHeight));");
+		scroll("bottom", null);
 	}
 
 	/**
@@ -191,10 +133,18 @@ public final class Event {
 	 */
 	public static void scrollToTop() {
 
-		JavascriptExecutor jse = (JavascriptExecutor) BrowserSession.getInstance().getWebDriver();
+		scroll("top", null);
+	}
 
-		// using "-50" because of the Main Menu, which is an overlay
-		jse.executeScript("window.scrollTo(0,Math.min(document.documentElement.scrollHeight,document.body.scrollHeight,document.documentElement.clientHeight) - 50);");
+	/**
+	 * Set the CSS selector of the sticky header overlay that {@link #scrollTo(WebElement)} keeps the elements away from (default
+	 * <b>browser.header.selector</b>)
+	 *
+	 * @param cssSelector
+	 *        the CSS selector, or an empty {@link String} if the pages have no overlay
+	 */
+	public static void setHeaderSelector(String cssSelector) {
+		headerSelector = cssSelector;
 	}
 
 	/**
@@ -202,24 +152,18 @@ public final class Event {
 	 */
 	public static void scrollToRightEdge() {
 
-		JavascriptExecutor js = (JavascriptExecutor) BrowserSession.getInstance().getWebDriver();
-
-		js.executeScript("window.scrollTo(Math.max(document.documentElement.scrollWidth,document.body.scrollHeight,document.documentElement.clientWidth),-1);");
+		JsLibrary.call("scrollToRightEdge");
 	}
 
 	/**
-	 * Hovers the given element using the mouse cursor
+	 * Hovers the given element using the mouse cursor (added to the open {@link Interaction}, if any)
 	 * 
 	 * @param element
 	 *        the {@link WebElement}
 	 */
 	public static void mouseOver(WebElement element) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
-
-		Actions builder = new Actions(driver);
-
-		builder.moveToElement(element).build().perform();
+		Interaction.run(actions -> actions.moveToElement(element));
 	}
 
 	/**
@@ -230,26 +174,24 @@ public final class Event {
 	 */
 	public static void mouseOver(By locator) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = getCurrentWebDriver();
 
 		mouseOver(driver.findElement(locator));
 	}
 
 	/**
-	 * Blurs the element determined by the given {@link By} locator, using {@link JavascriptExecutor}
+	 * Blurs the element determined by the given {@link By} locator, using the {@link JsLibrary}
 	 * 
 	 * @param locator
 	 *        the {@link By} locator of the element
 	 */
 	public static void blur(By locator) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
-
-		JavascriptExecutor js = (JavascriptExecutor) driver;
+		WebDriver driver = getCurrentWebDriver();
 
 		try {
 
-			js.executeScript("return arguments[0].blur();", driver.findElement(locator));
+			JsLibrary.call("blur", driver.findElement(locator));
 
 		} catch (StaleElementReferenceException e) {
 			blur(locator);
@@ -257,16 +199,14 @@ public final class Event {
 	}
 
 	/**
-	 * Blurs the given element using {@link JavascriptExecutor}
+	 * Blurs the given element using the {@link JsLibrary}
 	 * 
 	 * @param element
 	 *        the {@link WebElement} to blur
 	 */
 	public static void blur(WebElement element) {
 
-		JavascriptExecutor js = (JavascriptExecutor) BrowserSession.getInstance().getWebDriver();
-
-		js.executeScript("return arguments[0].blur();", element); // arguments[0] != undefined
+		JsLibrary.call("blur", element);
 	}
 
 	/**
@@ -277,50 +217,44 @@ public final class Event {
 	 */
 	public static void focus(By locator) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = getCurrentWebDriver();
 
 		focus(driver.findElement(locator));
 	}
 
 	/**
-	 * Focuses the given element using {@link Actions}
+	 * Focuses the given element using {@link Actions} (added to the open {@link Interaction}, if any)
 	 * 
 	 * @param element
 	 *        the element to focus on
 	 */
 	public static void focus(WebElement element) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
-
-		Actions action = new Actions(driver);
-
-		action.moveToElement(element).build().perform();
+		Interaction.run(actions -> actions.moveToElement(element));
 	}
 
 	/**
-	 * Focuses the given element using {@link JavascriptExecutor}
+	 * Focuses the given element using the {@link JsLibrary}
 	 * 
 	 * @param locator
 	 *        the {@link By} locator of the element
 	 */
 	public static void focusJS(By locator) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = getCurrentWebDriver();
 
 		focusJS(driver.findElement(locator));
 	}
 
 	/**
-	 * Focuses the given element using {@link JavascriptExecutor}
+	 * Focuses the given element using the {@link JsLibrary}
 	 * 
 	 * @param element
 	 *        the {@link WebElement} to focus
 	 */
 	public static void focusJS(WebElement element) {
 
-		JavascriptExecutor js = (JavascriptExecutor) BrowserSession.getInstance().getWebDriver();
-
-		js.executeScript("return arguments[0] != undefined && arguments[0].focus();", element);
+		JsLibrary.call("focus", element);
 	}
 
 	/**
@@ -331,7 +265,7 @@ public final class Event {
 	 */
 	public static void hideElement(By locator) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = getCurrentWebDriver();
 
 		hideElement(driver.findElement(locator));
 	}
@@ -344,11 +278,24 @@ public final class Event {
 	 */
 	public static void hideElement(WebElement element) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		new ScriptBatch().hide(element).executeAndCheck();
+	}
+
+	/**
+	 * Hides the DOM elements from the UI, in a single browser call (e.g. the overlays covering the page before a screenshot)
+	 *
+	 * @param elements
+	 *        the {@link WebElement}<code>s</code> to hide
+	 */
+	public static void hideElements(WebElement... elements) {
 
-		JavascriptExecutor js = (JavascriptExecutor) driver;
+		ScriptBatch batch = new ScriptBatch();
 
-		js.executeScript("arguments[0].setAttribute('style', 'display: none;')", element);
+		for (WebElement element : elements) {
+			batch.hide(element);
+		}
+
+		batch.executeAndCheck();
 	}
 
 	/**
@@ -359,7 +306,7 @@ public final class Event {
 	 */
 	public static void removeElement(By locator) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		WebDriver driver = getCurrentWebDriver();
 
 		removeElement(driver.findElement(locator));
 	}
@@ -372,29 +319,53 @@ public final class Event {
 	 */
 	public static void removeElement(WebElement element) {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		new ScriptBatch().remove(element).executeAndCheck();
+	}
+
+	/**
+	 * Removes the DOM elements from the UI, in a single browser call
+	 *
+	 * @param elements
+	 *        the {@link WebElement}<code>s</code> to remove
+	 */
+	public static void removeElements(WebElement... elements) {
+
+		ScriptBatch batch = new ScriptBatch();
 
-		JavascriptExecutor js = (JavascriptExecutor) driver;
+		for (WebElement element : elements) {
+			batch.remove(element);
+		}
 
-		js.executeScript("arguments[0].remove()", element);
+		batch.executeAndCheck();
 	}
 
 	/**
-	 * Get the view port height attribute on the current HTML page
-	 * 
+	 * Get the CSS selector of the sticky header overlay, see {@link #setHeaderSelector(String)}
+	 *
 	 * @return
 	 */
-	private static int getViewPortHeight() {
+	static String getHeaderSelector() {
 
-		WebDriver driver = BrowserSession.getInstance().getWebDriver();
+		if (headerSelector == null) {
+			headerSelector = Settings.getInstance().getHeaderSelector();
+		}
 
-		JavascriptExecutor js = (JavascriptExecutor) driver;
+		return headerSelector;
+	}
 
-		Object heightAttribute = js.executeScript("return Math.max(document.documentElement.clientHeight, window.innerHeight || 0);");
+	/**
+	 * Run the scroll function of the {@link JsLibrary}
+	 *
+	 * @param mode
+	 *        <code>element</code>, <code>top</code> or <code>bottom</code>
+	 * @param element
+	 *        the {@link WebElement} to scroll to, in <code>element</code> mode
+	 */
+	private static void scroll(String mode, WebElement element) {
 
-		int viewPortHeight = Integer.valueOf(heightAttribute.toString());
+		Object scrolledBy = JsLibrary.call("scroll", mode, element, getHeaderSelector(), SCROLL_MARGIN);
 
-		return viewPortHeight;
+		LOG.info("Scrolled to " + (element == null ? mode : "element") + " (" + scrolledBy + "px)");
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,184 @@
+package automation.util;
+
+import static org.openqa.selenium.support.ui.ExpectedConditions.elementToBeClickable;
+
+import java.util.Map;
+
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+
+import automation.core.WaitElement;
+
+/**
+ * Idempotent form primitives, which wait for the control, scroll it into view, check its state and change it with as few browser calls
+ * as possible.<br>
+ * Each primitive returns the state of the control once it is done
+ *
+ * @author alexgabor
+ *
+ */
+public final class FormControls {
+
+	private static final int TIMEOUT = 15;
+
+	private FormControls() {
+	}
+
+	/**
+	 * Check or uncheck the given checkbox (or check the given radio button), clicking it only if needed
+	 *
+	 * @param element
+	 *        the checkbox or radio button
+	 * @param isChecked
+	 *        the wanted state
+	 * @return <code>true</code> if the control is checked in the end
+	 * @throws ElementNotInteractableException
+	 *         if the control does not become usable
+	 */
+	public static boolean setChecked(WebElement element, boolean isChecked) {
+
+		Map<?, ?> state = prepare(element, null);
+
+		if (Boolean.TRUE.equals(state.get("checked")) == isChecked) {
+			return isChecked;
+		}
+
+		element.click();
+
+		return element.isSelected();
+	}
+
+	/**
+	 * Select the option having the given value, in the given select element
+	 *
+	 * @param select
+	 *        the select element
+	 * @param value
+	 *        the value of the option
+	 * @return the value of the selected option
+	 * @throws NoSuchElementException
+	 *         if there is no such option
+	 * @throws InvalidElementStateException
+	 *         if the option is disabled
+	 */
+	public static String selectByValue(WebElement select, String value) {
+		return select(select, false, value);
+	}
+
+	/**
+	 * Select the option having the given visible text, in the given select element
+	 *
+	 * @param select
+	 *        the select element
+	 * @param text
+	 *        the visible text of the option
+	 * @return the value of the selected option
+	 * @throws NoSuchElementException
+	 *         if there is no such option
+	 * @throws InvalidElementStateException
+	 *         if the option is disabled
+	 */
+	public static String selectByVisibleText(WebElement select, String text) {
+		return select(select, true, text);
+	}
+
+	/**
+	 * Replace the content of the given text field, typing the text only if the field does not already contain it
+	 *
+	 * @param element
+	 *        the input or text area
+	 * @param text
+	 *        the text to type
+	 * @return the value of the field in the end
+	 * @throws ElementNotInteractableException
+	 *         if the field does not become usable
+	 */
+	public static String typeInto(WebElement element, String text) {
+
+		Map<?, ?> state = prepare(element, text);
+
+		if (text.equals(state.get("value"))) {
+			return text;
+		}
+
+		element.sendKeys(text);
+
+		return element.getAttribute("value");
+	}
+
+	/**
+	 * Wait for the given select element to be visible and enabled, then scroll it into view and select an option, in a single call when
+	 * the select element is already usable
+	 *
+	 * @param select
+	 *        the select element
+	 * @param isByText
+	 *        <code>true</code> to match the visible text of the options, <code>false</code> to match their value
+	 * @param key
+	 *        the text or value to match
+	 * @return the value of the selected option
+	 * @throws ElementNotInteractableException
+	 *         if the select element does not become usable
+	 */
+	private static String select(WebElement select, boolean isByText, String key) {
+
+		Map<?, ?> result = (Map<?, ?>) JsLibrary.call("select", select, isByText, key, Event.getHeaderSelector(), Event.SCROLL_MARGIN);
+
+		if (!Boolean.TRUE.equals(result.get("ready"))) {
+
+			new WaitElement().waitUntil(elementToBeClickable(select), TIMEOUT);
+
+			result = (Map<?, ?>) JsLibrary.call("select", select, isByText, key, Event.getHeaderSelector(), Event.SCROLL_MARGIN);
+
+			if (!Boolean.TRUE.equals(result.get("ready"))) {
+				throw new ElementNotInteractableException("The select element cannot be used: " + select);
+			}
+		}
+
+		String option = (isByText ? "text" : "value") + ": " + key;
+
+		if (!Boolean.TRUE.equals(result.get("found"))) {
+			throw new NoSuchElementException("Cannot locate option with " + option);
+		}
+
+		if (Boolean.TRUE.equals(result.get("disabled"))) {
+			throw new InvalidElementStateException("Cannot select the disabled option with " + option);
+		}
+
+		return (String) result.get("value");
+	}
+
+	/**
+	 * Wait for the given control to be visible and enabled, then scroll it into view and get its state, in a single call when it is
+	 * already usable
+	 *
+	 * @param element
+	 *        the form control
+	 * @param expectedValue
+	 *        the value the control should hold: it is emptied if it holds another value; <code>null</code> to leave it unchanged
+	 * @return the control state: <code>ready</code>, <code>checked</code> and <code>value</code>
+	 * @throws ElementNotInteractableException
+	 *         if the control is still not usable after the wait
+	 */
+	private static Map<?, ?> prepare(WebElement element, String expectedValue) {
+
+		Map<?, ?> state = (Map<?, ?>) JsLibrary.call("prepare", element, Event.getHeaderSelector(), Event.SCROLL_MARGIN, expectedValue);
+
+		if (Boolean.TRUE.equals(state.get("ready"))) {
+			return state;
+		}
+
+		new WaitElement().waitUntil(elementToBeClickable(element), TIMEOUT);
+
+		state = (Map<?, ?>) JsLibrary.call("prepare", element, Event.getHeaderSelector(), Event.SCROLL_MARGIN, expectedValue);
+
+		if (!Boolean.TRUE.equals(state.get("ready"))) {
+			throw new ElementNotInteractableException("The form control cannot be used: " + element);
+		}
+
+		return state;
+	}
+
+}
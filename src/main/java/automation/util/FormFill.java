@@ -0,0 +1,270 @@
+package automation.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import automation.core.logging.MessageLogger;
+
+/**
+ * Builder filling several form fields with a single script, which sets the values and fires the events the page listens to (input, change
+ * and blur), then checks the final value of each field.<br>
+ * The fields which cannot be filled this way (missing, stale or not usable yet, or changed by the page) are filled again one by one with
+ * the {@link FormControls} primitives, as are the fields added with {@link #keystrokes(WebElement, String)} (e.g. masked inputs or date
+ * pickers reacting to each key)
+ *
+ * <pre>
+ * new FormFill().value(txtFirstName, "John").selectByValue(selectCity, "Cluj").checked(chkNewsletter, true).execute();
+ * </pre>
+ *
+ * @author alexgabor
+ *
+ */
+public final class FormFill {
+
+	private static final MessageLogger LOG = new MessageLogger(FormFill.class);
+
+	private final List<Field> fields = new ArrayList<>();
+
+	/**
+	 * Set the value of the given text field
+	 *
+	 * @param element
+	 *        the input or text area
+	 * @param text
+	 *        the value
+	 * @return this {@link FormFill}
+	 */
+	public FormFill value(WebElement element, String text) {
+		return add(element, Kind.VALUE, text);
+	}
+
+	/**
+	 * Type the given text into the given field with real keystrokes, after the other fields are filled
+	 *
+	 * @param element
+	 *        the input or text area
+	 * @param text
+	 *        the text to type
+	 * @return this {@link FormFill}
+	 */
+	public FormFill keystrokes(WebElement element, String text) {
+		return add(element, Kind.KEYSTROKES, text);
+	}
+
+	/**
+	 * Select the option having the given value
+	 *
+	 * @param select
+	 *        the select element
+	 * @param value
+	 *        the value of the option
+	 * @return this {@link FormFill}
+	 */
+	public FormFill selectByValue(WebElement select, String value) {
+		return add(select, Kind.SELECT_BY_VALUE, value);
+	}
+
+	/**
+	 * Select the option having the given visible text
+	 *
+	 * @param select
+	 *        the select element
+	 * @param text
+	 *        the visible text of the option
+	 * @return this {@link FormFill}
+	 */
+	public FormFill selectByVisibleText(WebElement select, String text) {
+		return add(select, Kind.SELECT_BY_TEXT, text);
+	}
+
+	/**
+	 * Check or uncheck the given checkbox (or check the given radio button)
+	 *
+	 * @param element
+	 *        the checkbox or radio button
+	 * @param isChecked
+	 *        the wanted state
+	 * @return this {@link FormFill}
+	 */
+	public FormFill checked(WebElement element, boolean isChecked) {
+		return add(element, Kind.CHECKED, isChecked);
+	}
+
+	/**
+	 * Fill all the fields
+	 *
+	 * @return the number of fields filled one by one
+	 * @throws NoSuchElementException
+	 *         if an option to select does not exist
+	 */
+	public int execute() {
+
+		List<Field> scripted = new ArrayList<>();
+		List<Field> remaining = new ArrayList<>();
+		List<List<Object>> specs = new ArrayList<>();
+
+		for (Field field : fields) {
+
+			if (field.kind == Kind.KEYSTROKES) {
+				remaining.add(field);
+				continue;
+			}
+
+			WebElement element;
+
+			try {
+				element = resolve(field.element);
+			} catch (WebDriverException e) { // not there yet, left to the waits of the primitives
+				LOG.debug("Cannot resolve the field to fill with the script, it will be filled one by one: " + e.getMessage());
+				remaining.add(field);
+				continue;
+			}
+
+			scripted.add(field);
+			specs.add(Arrays.asList(element, field.kind.scriptName, field.value));
+		}
+
+		if (!specs.isEmpty()) {
+
+			List<?> states;
+
+			try {
+				states = (List<?>) JsLibrary.call("fill", specs);
+			} catch (StaleElementReferenceException e) { // replaced by the page since it was resolved
+				LOG.debug("A field to fill went stale, filling all of them one by one: " + e.getMessage());
+				states = Arrays.asList(new Object[scripted.size()]);
+			}
+
+			for (int i = 0; i < scripted.size(); i++) {
+
+				Field field = scripted.get(i);
+
+				if (!field.isFilled(states.get(i))) {
+					remaining.add(field);
+				}
+			}
+		}
+
+		for (Field field : remaining) {
+			field.fill();
+		}
+
+		LOG.debug("Filled " + fields.size() + " field(s), " + remaining.size() + " of them one by one");
+
+		return remaining.size();
+	}
+
+	/**
+	 * Get the element located by the given page object field, so that a missing or stale field is reported before the script runs
+	 *
+	 * @param element
+	 *        the element to fill
+	 * @return the located element
+	 */
+	private static WebElement resolve(WebElement element) {
+		return element instanceof WrapsElement ? ((WrapsElement) element).getWrappedElement() : element;
+	}
+
+	private FormFill add(WebElement element, Kind kind, Object value) {
+
+		fields.add(new Field(element, kind, value));
+
+		return this;
+	}
+
+	/**
+	 * The ways of filling a field
+	 */
+	private enum Kind {
+
+		VALUE("value"),
+		SELECT_BY_VALUE("select"),
+		SELECT_BY_TEXT("selectText"),
+		CHECKED("checked"),
+		KEYSTROKES(null);
+
+		/** The kind understood by the library <code>fill</code> function */
+		private final String scriptName;
+
+		Kind(String scriptName) {
+			this.scriptName = scriptName;
+		}
+	}
+
+	/**
+	 * A field to fill
+	 */
+	private static final class Field {
+
+		private final WebElement element;
+		private final Kind kind;
+		private final Object value;
+
+		Field(WebElement element, Kind kind, Object value) {
+
+			this.element = element;
+			this.kind = kind;
+			this.value = value;
+		}
+
+		/**
+		 * Check the state of the field returned by the script
+		 *
+		 * @param state
+		 *        the final value (the value of the selected option, for selects), <code>null</code> if the field was not usable
+		 * @return <code>true</code> if the field holds the wanted value
+		 */
+		boolean isFilled(Object state) {
+
+			if (kind == Kind.SELECT_BY_TEXT) {
+				return state != null; // the option text is matched by the script, which returns its value
+			}
+
+			return value.equals(state);
+		}
+
+		/**
+		 * Fill the field with the {@link FormControls} primitive matching its kind
+		 */
+		void fill() {
+
+			switch (kind) {
+			case VALUE:
+			case KEYSTROKES:
+
+				FormControls.typeInto(element, (String) value);
+
+				break;
+
+			case SELECT_BY_VALUE:
+
+				FormControls.selectByValue(element, (String) value);
+
+				break;
+
+			case SELECT_BY_TEXT:
+
+				FormControls.selectByVisibleText(element, (String) value);
+
+				break;
+
+			case CHECKED:
+
+				FormControls.setChecked(element, (Boolean) value);
+
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unhandled enum constant for field kind: " + kind);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,209 @@
+package automation.util;
+
+import static automation.core.TestContext.getCurrentWebDriver;
+
+import java.util.function.Consumer;
+
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+
+/**
+ * Chain of pointer and keyboard steps sent to the browser as a single W3C <code>performActions</code> request.<br>
+ * While a chain is open on the current thread, the {@link Event} mouse helpers add their steps to it instead of performing them right
+ * away. The steps are only sent by {@link #perform()}: closing a chain which was not performed (e.g. after an exception) discards it, e.g.:
+ *
+ * <pre>
+ * try (Interaction interaction = Interaction.begin()) {
+ * 	Event.mouseOver(menu);
+ * 	interaction.click(subMenuItem).perform(); // hover and click are sent together here
+ * }
+ * </pre>
+ *
+ * @author alexgabor
+ *
+ */
+public final class Interaction implements AutoCloseable {
+
+	private static final ThreadLocal<Interaction> openChain = new ThreadLocal<>();
+
+	private final Actions actions = new Actions(getCurrentWebDriver());
+	private boolean isPerformed;
+
+	private Interaction() {
+	}
+
+	/**
+	 * Open a chain on the current thread
+	 *
+	 * @return the open {@link Interaction}
+	 * @throws IllegalStateException
+	 *         if a chain is already open on the current thread (chains cannot be nested)
+	 */
+	public static Interaction begin() {
+
+		if (openChain.get() != null) {
+			throw new IllegalStateException("An interaction chain is already open on this thread");
+		}
+
+		Interaction interaction = new Interaction();
+
+		openChain.set(interaction);
+
+		return interaction;
+	}
+
+	/**
+	 * Add the given steps to the chain open on the current thread, or perform them right away if there is none
+	 *
+	 * @param steps
+	 *        the steps to add to the {@link Actions}
+	 */
+	public static void run(Consumer<Actions> steps) {
+
+		Interaction interaction = openChain.get();
+
+		if (interaction != null) {
+
+			steps.accept(interaction.actions);
+
+			return;
+		}
+
+		Actions actions = new Actions(getCurrentWebDriver());
+
+		steps.accept(actions);
+
+		actions.perform();
+	}
+
+	/**
+	 * Move the mouse over the given element
+	 *
+	 * @param element
+	 *        the {@link WebElement} to hover
+	 * @return the current {@link Interaction} instance
+	 */
+	public Interaction hover(WebElement element) {
+
+		actions.moveToElement(element);
+
+		return this;
+	}
+
+	/**
+	 * Click in the middle of the given element
+	 *
+	 * @param element
+	 *        the {@link WebElement} to click
+	 * @return the current {@link Interaction} instance
+	 */
+	public Interaction click(WebElement element) {
+
+		actions.click(element);
+
+		return this;
+	}
+
+	/**
+	 * Click at the current mouse position
+	 *
+	 * @return the current {@link Interaction} instance
+	 */
+	public Interaction click() {
+
+		actions.click();
+
+		return this;
+	}
+
+	/**
+	 * Click the given element, then type the given keys
+	 *
+	 * @param element
+	 *        the {@link WebElement} to type into
+	 * @param keys
+	 *        the keys to type
+	 * @return the current {@link Interaction} instance
+	 */
+	public Interaction type(WebElement element, CharSequence... keys) {
+
+		actions.sendKeys(element, keys);
+
+		return this;
+	}
+
+	/**
+	 * Type the given keys in the focused element
+	 *
+	 * @param keys
+	 *        the keys to type
+	 * @return the current {@link Interaction} instance
+	 */
+	public Interaction type(CharSequence... keys) {
+
+		actions.sendKeys(keys);
+
+		return this;
+	}
+
+	/**
+	 * Press a key while holding the given modifier, e.g. <code>chord(Keys.CONTROL, "a")</code>
+	 *
+	 * @param modifier
+	 *        the modifier key ({@link Keys#CONTROL}, {@link Keys#SHIFT}, {@link Keys#ALT}, ...)
+	 * @param keys
+	 *        the keys to type while the modifier is down
+	 * @return the current {@link Interaction} instance
+	 */
+	public Interaction chord(Keys modifier, CharSequence... keys) {
+
+		actions.keyDown(modifier).sendKeys(keys).keyUp(modifier);
+
+		return this;
+	}
+
+	/**
+	 * Wait between two steps, in the browser
+	 *
+	 * @param millis
+	 *        the pause in milliseconds
+	 * @return the current {@link Interaction} instance
+	 */
+	public Interaction pause(long millis) {
+
+		actions.pause(millis);
+
+		return this;
+	}
+
+	/**
+	 * Send all the steps to the browser in one request, and close the chain
+	 */
+	public void perform() {
+
+		if (isPerformed) {
+			return;
+		}
+
+		isPerformed = true;
+
+		openChain.remove();
+
+		actions.perform();
+	}
+
+	/**
+	 * Close the chain, discarding its steps if it was not performed (e.g. when the try-with-resources block threw)
+	 */
+	@Override
+	public void close() {
+
+		if (openChain.get() == this) {
+			openChain.remove();
+		}
+
+		isPerformed = true; // the discarded steps cannot be performed later
+	}
+
+}
@@ -0,0 +1,142 @@
+package automation.util;
+
+import static automation.core.TestContext.getCurrentWebDriver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openqa.selenium.JavascriptExecutor;
+
+import automation.core.DomEpoch;
+
+/**
+ * Versioned library of helper functions, installed once per document, so that the helpers (see {@link Event}) only send a function name
+ * and its arguments instead of the whole script.<br>
+ * A call finding no library (a new document after a navigation, or an older version) installs it and repeats the call
+ *
+ * @author alexgabor
+ *
+ */
+public final class JsLibrary {
+
+	private static final int VERSION = 5;
+
+	private static final String MISSING = "__automationLibMissing";
+
+	private static final String LIBRARY = "window.__automationLib = { version: " + VERSION + ","
+			// scrolls to the top, to the bottom or just enough to show the element below the sticky header overlay (if visible) and above the
+			// bottom of the viewport; returns the number of pixels scrolled
+			+ " scroll: function (mode, element, headerSelector, margin) {"
+			+ "  var root = document.scrollingElement || document.documentElement, before = window.pageYOffset;"
+			+ "  if (mode === 'top') { window.scrollTo(window.pageXOffset, 0); return window.pageYOffset - before; }"
+			+ "  if (mode === 'bottom') { window.scrollTo(window.pageXOffset, root.scrollHeight); return window.pageYOffset - before; }"
+			+ "  var top = 0, header = headerSelector ? document.querySelector(headerSelector) : null;"
+			+ "  if (header) { var style = window.getComputedStyle(header), box = header.getBoundingClientRect();"
+			+ "   if ((style.position === 'fixed' || style.position === 'sticky') && style.display !== 'none' && style.visibility !== 'hidden' && box.height > 0) {"
+			+ "    top = Math.max(0, box.bottom); } }"
+			+ "  var bottom = window.innerHeight || document.documentElement.clientHeight, rect = element.getBoundingClientRect(), delta = 0;"
+			+ "  if (rect.top < top + margin) { delta = rect.top - top - margin; }"
+			+ "  else if (rect.bottom > bottom - margin) { delta = Math.min(rect.bottom - bottom + margin, rect.top - top - margin); }"
+			+ "  if (delta !== 0) { window.scrollBy(0, delta); }"
+			+ "  return window.pageYOffset - before; },"
+			+ " scrollBy: function (x, y) { window.scrollBy(x, y); },"
+			+ " scrollToRightEdge: function () { var root = document.scrollingElement || document.documentElement;"
+			+ "  window.scrollTo(root.scrollWidth, window.pageYOffset); },"
+			+ " viewportHeight: function () { return Math.max(document.documentElement.clientHeight, window.innerHeight || 0); },"
+			+ " blur: function (element) { element.blur(); },"
+			+ " focus: function (element) { if (element) { element.focus(); } },"
+			+ " usable: function (element) { var style = window.getComputedStyle(element), box = element.getBoundingClientRect();"
+			+ "  return box.width > 0 && box.height > 0 && style.visibility !== 'hidden' && style.display !== 'none' && !element.disabled; },"
+			// checks that the form control can be used, scrolls it into view and empties it if it does not hold the expected value (if any);
+			// returns its state
+			+ " prepare: function (element, headerSelector, margin, expectedValue) {"
+			+ "  var ready = window.__automationLib.usable(element);"
+			+ "  if (ready) { window.__automationLib.scroll('element', element, headerSelector, margin); }"
+			+ "  if (ready && expectedValue !== null && element.value !== expectedValue && element.value !== '') {"
+			+ "   element.value = ''; element.dispatchEvent(new Event('input', { bubbles: true })); }"
+			+ "  return { ready: ready, checked: !!element.checked, value: element.value === undefined ? null : element.value }; },"
+			// selects the option of a select element with the given value (or visible text), firing the change events only if it changes;
+			// returns the option value and whether it is disabled (a disabled option is not selected), null if there is no such option
+			+ " selectOption: function (select, isByText, key) {"
+			+ "  for (var i = 0; i < select.options.length; i++) { var option = select.options[i];"
+			+ "   if ((isByText ? option.text.trim() : option.value) === key) {"
+			+ "    var disabled = option.disabled || (option.parentNode.tagName === 'OPTGROUP' && option.parentNode.disabled);"
+			+ "    if (!disabled && !option.selected) { option.selected = true;"
+			+ "     select.dispatchEvent(new Event('input', { bubbles: true })); select.dispatchEvent(new Event('change', { bubbles: true })); }"
+			+ "    return { value: option.value, disabled: disabled }; } }"
+			+ "  return null; },"
+			// checks that the select element can be used, scrolls it into view and selects the option; returns the outcome
+			+ " select: function (select, isByText, key, headerSelector, margin) { var lib = window.__automationLib;"
+			+ "  if (!lib.usable(select)) { return { ready: false }; }"
+			+ "  lib.scroll('element', select, headerSelector, margin);"
+			+ "  var option = lib.selectOption(select, isByText, key);"
+			+ "  return { ready: true, found: !!option, disabled: !!(option && option.disabled), value: option ? option.value : null }; },"
+			// locates the first element of each [strategy, value] pair (strategies named as the By factory methods), null if not found
+			+ " resolve: function (locators) { return locators.map(function (locator) {"
+			+ "  var strategy = locator[0], value = locator[1];"
+			+ "  try { switch (strategy) {"
+			+ "   case 'id': return document.getElementById(value);"
+			+ "   case 'name': return document.getElementsByName(value)[0] || null;"
+			+ "   case 'cssSelector': return document.querySelector(value);"
+			+ "   case 'className': return document.getElementsByClassName(value)[0] || null;"
+			+ "   case 'tagName': return document.getElementsByTagName(value)[0] || null;"
+			+ "   case 'xpath': return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+			+ "   case 'linkText': case 'partialLinkText': var links = document.getElementsByTagName('a');"
+			+ "    for (var i = 0; i < links.length; i++) { var text = links[i].innerText.trim();"
+			+ "     if (strategy === 'linkText' ? text === value : text.indexOf(value) >= 0) { return links[i]; } }"
+			+ "    return null;"
+			+ "  } } catch (e) { return null; }"
+			+ "  return null; }); },"
+			// applies each [element, kind, value] field (kinds: value, select, selectText, checked) as if it was edited by the user, firing the
+			// input, change and blur events; returns the final state of each field, null if it cannot be used or was detached by the events
+			+ " fill: function (fields) { var lib = window.__automationLib; var states = fields.map(function (field) {"
+			+ "  var element = field[0], kind = field[1], value = field[2];"
+			+ "  try { if (!element.isConnected || !lib.usable(element)) { return null; }"
+			+ "   if (kind === 'select' || kind === 'selectText') { var option = lib.selectOption(element, kind === 'selectText', value);"
+			+ "    return option && !option.disabled ? option.value : null; }"
+			+ "   if (kind === 'checked') { if (!!element.checked !== value) { element.click(); } return !!element.checked; }"
+			+ "   if (element.value !== value) {"
+			+ "    var descriptor = Object.getOwnPropertyDescriptor(Object.getPrototypeOf(element), 'value');" // bypasses framework overrides
+			+ "    if (descriptor && descriptor.set) { descriptor.set.call(element, value); } else { element.value = value; }"
+			+ "    element.dispatchEvent(new Event('input', { bubbles: true })); element.dispatchEvent(new Event('change', { bubbles: true }));"
+			+ "    element.dispatchEvent(new FocusEvent('blur')); element.dispatchEvent(new FocusEvent('focusout', { bubbles: true })); }"
+			+ "   return element.value;"
+			+ "  } catch (e) { return null; } });"
+			+ "  return states.map(function (state, i) { return fields[i][0].isConnected ? state : null; }); }"
+			+ " };";
+
+	private static final String CALL_SCRIPT = "var lib = window.__automationLib;"
+			+ " if (!lib || lib.version !== " + VERSION + ") { return '" + MISSING + "'; }"
+			+ " return lib[arguments[0]].apply(null, arguments[1]);";
+
+	private JsLibrary() {
+	}
+
+	/**
+	 * Call a library function in the current page
+	 *
+	 * @param function
+	 *        the function name, e.g. <code>scroll</code>
+	 * @param args
+	 *        the function arguments
+	 * @return the value returned by the function
+	 */
+	public static Object call(String function, Object... args) {
+
+		JavascriptExecutor js = (JavascriptExecutor) getCurrentWebDriver();
+
+		List<Object> arguments = Arrays.asList(args);
+
+		Object result = js.executeScript(CALL_SCRIPT, function, arguments);
+
+		if (MISSING.equals(result)) {
+
+			DomEpoch.advance(); // a new document, possibly loaded without a navigation event (e.g. by a click)
+
+			result = js.executeScript(LIBRARY + CALL_SCRIPT, function, arguments);
+		}
+
+		return result;
+	}
+
+}
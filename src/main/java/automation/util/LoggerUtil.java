@@ -54,7 +54,7 @@ public final class LoggerUtil {
 	 * @param testName
 	 *        the name of the test that will be executed
 	 */
-	public static void createLogFile(String testName) {
+	public static synchronized void createLogFile(String testName) {
 
 		long threadID = currentThread().getId();
 
@@ -101,6 +101,15 @@ public final class LoggerUtil {
 		appenderThreaded.set(appender);
 	}
 
+	/**
+	 * Get the log {@link Appender} of the test running on the current thread
+	 *
+	 * @return the {@link Appender}, or <code>null</code> if no test log file was created on this thread
+	 */
+	public static Appender getTestAppender() {
+		return appenderThreaded.get();
+	}
+
 	/**
 	 * Renames the test framework's log file by appending the timestamp suffix (usually called when a test ends)
 	 *
@@ -131,7 +140,7 @@ public final class LoggerUtil {
 	/**
 	 * Create the log file corresponding to the @BeforeAll method output
 	 */
-	public static void createBeforeAllLogFile() {
+	public static synchronized void createBeforeAllLogFile() {
 	
 		long threadID = currentThread().getId();
 	
@@ -213,7 +222,7 @@ public final class LoggerUtil {
 	/**
 	 * Removes the {@link Logger} appender for tests to detach the data stream from the log file
 	 */
-	public static void removeAndStopTestLogger() {
+	public static synchronized void removeAndStopTestLogger() {
 
 		final LoggerContext ctx = (LoggerContext) LogManager.getContext(false);
 		final Configuration config = ctx.getConfiguration();
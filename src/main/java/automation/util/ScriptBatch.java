@@ -0,0 +1,203 @@
+package automation.util;
+
+import static automation.core.TestContext.getCurrentWebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Queue of DOM operations sent to the browser in a single script, instead of one {@link JavascriptExecutor} call per operation.<br>
+ * Each operation is a script body reading its own <code>arguments</code>, e.g.
+ * <code>new ScriptBatch().hide(banner).hide(chat).blur(field).execute()</code>.<br>
+ * An operation failing in the page does not stop the following ones: its error is returned in its {@link Result}
+ *
+ * @author alexgabor
+ *
+ */
+public class ScriptBatch {
+
+	private final List<String> scripts = new ArrayList<>();
+	private final List<List<Object>> arguments = new ArrayList<>();
+
+	/**
+	 * Queue a script, run with the given arguments
+	 *
+	 * @param script
+	 *        the script body, as given to {@link JavascriptExecutor#executeScript(String, Object...)}
+	 * @param args
+	 *        the script arguments ({@link WebElement}<code>s</code>, strings, numbers, booleans, lists or maps)
+	 * @return the current {@link ScriptBatch} instance
+	 */
+	public ScriptBatch script(String script, Object... args) {
+
+		scripts.add(script);
+		arguments.add(Arrays.asList(args));
+
+		return this;
+	}
+
+	/**
+	 * Queue hiding the given element from the UI
+	 *
+	 * @param element
+	 *        the {@link WebElement} to hide
+	 * @return the current {@link ScriptBatch} instance
+	 */
+	public ScriptBatch hide(WebElement element) {
+		return script("arguments[0].setAttribute('style', 'display: none;')", element);
+	}
+
+	/**
+	 * Queue removing the given element from the DOM
+	 *
+	 * @param element
+	 *        the {@link WebElement} to remove
+	 * @return the current {@link ScriptBatch} instance
+	 */
+	public ScriptBatch remove(WebElement element) {
+		return script("arguments[0].remove()", element);
+	}
+
+	/**
+	 * Queue blurring the given element
+	 *
+	 * @param element
+	 *        the {@link WebElement} to blur
+	 * @return the current {@link ScriptBatch} instance
+	 */
+	public ScriptBatch blur(WebElement element) {
+		return script("arguments[0].blur()", element);
+	}
+
+	/**
+	 * Queue focusing the given element
+	 *
+	 * @param element
+	 *        the {@link WebElement} to focus
+	 * @return the current {@link ScriptBatch} instance
+	 */
+	public ScriptBatch focus(WebElement element) {
+		return script("arguments[0].focus()", element);
+	}
+
+	/**
+	 * Get the number of queued operations
+	 *
+	 * @return
+	 */
+	public int size() {
+		return scripts.size();
+	}
+
+	/**
+	 * Run all the queued operations in a single call, then clear the queue
+	 *
+	 * @return the result of each operation, in the order they were queued
+	 */
+	public List<Result> execute() {
+
+		List<Result> results = new ArrayList<>();
+
+		if (scripts.isEmpty()) {
+			return results;
+		}
+
+		// the operations are inlined as functions (no eval, which the page's Content Security Policy may forbid)
+		StringBuilder script = new StringBuilder("var operations = [");
+
+		for (int i = 0; i < scripts.size(); i++) {
+			script.append(i > 0 ? ", " : "").append("function () { ").append(scripts.get(i)).append("\n}");
+		}
+
+		script.append("], args = arguments[0], results = [];")
+				.append(" for (var i = 0; i < operations.length; i++) {")
+				.append("  try { results.push({ value: operations[i].apply(null, args[i]) }); }")
+				.append("  catch (e) { results.push({ error: String(e) }); } }")
+				.append(" return results;");
+
+		JavascriptExecutor js = (JavascriptExecutor) getCurrentWebDriver();
+
+		Object response = js.executeScript(script.toString(), new ArrayList<>(arguments));
+
+		scripts.clear();
+		arguments.clear();
+
+		for (Object result : (List<?>) response) {
+
+			Map<?, ?> map = (Map<?, ?>) result;
+
+			results.add(new Result(map.get("value"), (String) map.get("error")));
+		}
+
+		return results;
+	}
+
+	/**
+	 * Run all the queued operations in a single call, then clear the queue
+	 *
+	 * @return the result of each operation, in the order they were queued
+	 * @throws JavascriptException
+	 *         if any operation failed in the page
+	 */
+	public List<Result> executeAndCheck() {
+
+		List<Result> results = execute();
+
+		for (int i = 0; i < results.size(); i++) {
+
+			if (!results.get(i).isSuccessful()) {
+				throw new JavascriptException("Operation " + i + " of the script batch failed: " + results.get(i).getError());
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * Outcome of a queued operation
+	 */
+	public static final class Result {
+
+		private final Object value;
+		private final String error;
+
+		private Result(Object value, String error) {
+			this.value = value;
+			this.error = error;
+		}
+
+		/**
+		 * Get the value returned by the operation script
+		 *
+		 * @return
+		 */
+		public Object getValue() {
+			return value;
+		}
+
+		/**
+		 * Get the error thrown by the operation script
+		 *
+		 * @return the error message, <code>null</code> if the operation succeeded
+		 */
+		public String getError() {
+			return error;
+		}
+
+		/**
+		 * Tells if the operation ran without error
+		 *
+		 * @return
+		 */
+		public boolean isSuccessful() {
+			return error == null;
+		}
+	}
+
+}
@@ -9,6 +9,8 @@ import static java.util.Calendar.getInstance;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Random;
@@ -239,4 +241,25 @@ public final class StringUtil {
 		return baseName + "_h" + cal.get(HOUR_OF_DAY) + "m" + cal.get(MINUTE) + "s" + cal.get(SECOND) + "ms" + cal.get(MILLISECOND) + "." + fileExtension;
 	}
 
-}
\ No newline at end of file
+
+	/**
+	 * Get the origin (protocol, host and port) of the given URL
+	 *
+	 * @param url
+	 *        the URL, e.g. <code>https://www.siit.ro/admissions/</code>
+	 * @return the origin, e.g. <code>https://www.siit.ro</code>
+	 */
+	public static String getUrlOrigin(String url) {
+
+		try {
+
+			URL parsedUrl = new URL(url);
+
+			return new URL(parsedUrl.getProtocol(), parsedUrl.getHost(), parsedUrl.getPort(), "").toString();
+
+		} catch (MalformedURLException e) {
+			throw new IllegalArgumentException("Invalid URL: " + url, e);
+		}
+	}
+
+}